@@ -0,0 +1,23 @@
+package lms.coursehub.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lms.coursehub.helpers.utils.QuizAdmissionGate;
+import lms.coursehub.models.dtos.admission.QuizAdmissionStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admission")
+@Tag(name = "Admission Statistics")
+public class AdmissionController {
+
+    private final QuizAdmissionGate quizAdmissionGate;
+
+    // Queue depth, rejections and wait times of the quiz response admission gate
+    @GetMapping("/quiz-responses")
+    public ResponseEntity<QuizAdmissionStatsDto> getQuizResponseStats() {
+        return ResponseEntity.ok(quizAdmissionGate.getStats());
+    }
+}
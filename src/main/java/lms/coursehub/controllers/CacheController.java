@@ -0,0 +1,29 @@
+package lms.coursehub.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lms.coursehub.helpers.caches.CourseOutlineCache;
+import lms.coursehub.helpers.caches.QuizPaperCache;
+import lms.coursehub.models.dtos.cache.CacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/cache")
+@Tag(name = "Cache Statistics")
+public class CacheController {
+
+    private final CourseOutlineCache courseOutlineCache;
+    private final QuizPaperCache quizPaperCache;
+
+    @GetMapping("/course-outline")
+    public ResponseEntity<CacheStatsDto> getCourseOutlineStats() {
+        return ResponseEntity.ok(courseOutlineCache.getStats());
+    }
+
+    @GetMapping("/quiz-papers")
+    public ResponseEntity<CacheStatsDto> getQuizPaperStats() {
+        return ResponseEntity.ok(quizPaperCache.getStats());
+    }
+}
@@ -4,8 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import lms.coursehub.helpers.caches.CourseOutlineCache;
 import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.helpers.utils.MarkHistogram;
 import lms.coursehub.models.dtos.course.CloneCourseRequest;
 import lms.coursehub.models.dtos.course.CloneCourseResponse;
 import lms.coursehub.models.dtos.course.CreateCourseRequest;
@@ -13,19 +18,28 @@ import lms.coursehub.models.dtos.course.CourseResponseDto;
 import lms.coursehub.models.dtos.course.UpdateCourseRequest;
 import lms.coursehub.models.dtos.reports.AllAssignmentsReportDto;
 import lms.coursehub.models.dtos.reports.AllQuizzesReportDto;
+import lms.coursehub.models.dtos.reports.CourseActivityReportDto;
+import lms.coursehub.models.dtos.reports.TeacherDashboardDto;
 import lms.coursehub.models.dtos.topic.TopicResponseDto;
 import lms.coursehub.models.entities.Course;
 import lms.coursehub.models.entities.User;
+import lms.coursehub.services.ActivityRollupService;
 import lms.coursehub.services.CourseService;
+import lms.coursehub.services.CourseVersionService;
+import lms.coursehub.services.ReportJobService;
+import lms.coursehub.services.TeacherDashboardService;
 import lms.coursehub.services.TopicService;
 import lms.coursehub.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -38,6 +52,11 @@ public class CourseController {
     private final CourseService courseService;
     private final TopicService topicService;
     private final UserService userService;
+    private final CourseOutlineCache courseOutlineCache;
+    private final CourseVersionService courseVersionService;
+    private final ReportJobService reportJobService;
+    private final TeacherDashboardService teacherDashboardService;
+    private final ActivityRollupService activityRollupService;
     
     @Value("${livekit.api-key:devkey}")
     private String liveKitApiKey;
@@ -55,10 +74,21 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // The outline is served from the pre-serialized course outline cache; the ETag
+    // check only needs the course's content version
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = CourseResponseDto.class)))
     @GetMapping("/{courseId}")
-    public ResponseEntity<CourseResponseDto> getCourseById(@PathVariable String courseId) {
-        CourseResponseDto response = courseService.getCourseById(courseId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getCourseById(@PathVariable String courseId, WebRequest webRequest) {
+        long version = courseVersionService.getVersion(courseId);
+        String etag = courseVersionService.etag(version, "course");
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+
+        byte[] response = courseOutlineCache.getOrBuild(courseId, CourseOutlineCache.View.COURSE, version,
+                () -> courseService.getCourseById(courseId));
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     @GetMapping
@@ -72,6 +102,12 @@ public class CourseController {
         return ResponseEntity.ok(responses);
     }
 
+    // Headline metrics of every course of the current teacher
+    @GetMapping("/dashboard")
+    public ResponseEntity<TeacherDashboardDto> getTeacherDashboard() {
+        return ResponseEntity.ok(teacherDashboardService.getDashboard());
+    }
+
     @PutMapping("/{courseId}")
     public ResponseEntity<CourseResponseDto> updateCourse(
             @PathVariable String courseId,
@@ -115,12 +151,16 @@ public class CourseController {
         return ResponseEntity.ok(responses);
     }
 
+    // Shares jobs and cached results with /course/{courseId}/report-jobs
     @GetMapping("/{courseId}/quiz-report")
     public ResponseEntity<AllQuizzesReportDto> getAllQuizzesReport(
             @PathVariable String courseId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        AllQuizzesReportDto report = topicService.getAllQuizzesReport(courseId, start, end);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) List<Double> binEdges,
+            @RequestParam(required = false) Double binWidth) {
+        AllQuizzesReportDto report = reportJobService.getQuizzesReport(courseId, start, end,
+                MarkHistogram.resolveEdges(binEdges, binWidth));
         return ResponseEntity.ok(report);
     }
 
@@ -128,11 +168,23 @@ public class CourseController {
     public ResponseEntity<AllAssignmentsReportDto> getAllAssignmentsReport(
             @PathVariable String courseId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        AllAssignmentsReportDto report = topicService.getAllAssignmentsReport(courseId, start, end);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) List<Double> binEdges,
+            @RequestParam(required = false) Double binWidth) {
+        AllAssignmentsReportDto report = reportJobService.getAssignmentsReport(courseId, start, end,
+                MarkHistogram.resolveEdges(binEdges, binWidth));
         return ResponseEntity.ok(report);
     }
 
+    // Summed from the daily rollups; only days after the last rollup are read from the responses
+    @GetMapping("/{courseId}/activity-report")
+    public ResponseEntity<CourseActivityReportDto> getActivityReport(
+            @PathVariable String courseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(activityRollupService.getActivityReport(courseId, from, to));
+    }
+
     @GetMapping("/{courseId}/meeting/{topicId}/token")
     public ResponseEntity<Map<String, String>> getMeetingToken(
             @PathVariable String courseId,
@@ -0,0 +1,34 @@
+package lms.coursehub.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lms.coursehub.services.GradebookExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/course/{courseId}/gradebook")
+@Tag(name = "Gradebook")
+public class GradebookController {
+
+    private final GradebookExportService gradebookExportService;
+
+    // Streams one row per student and one column per quiz/assignment
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportGradebook(
+            @PathVariable String courseId,
+            @RequestParam(defaultValue = "csv") String format) {
+        StreamingResponseBody body = gradebookExportService.export(courseId, format);
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"gradebook-" + courseId + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+}
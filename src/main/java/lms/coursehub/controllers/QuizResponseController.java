@@ -1,10 +1,14 @@
 package lms.coursehub.controllers;
 
+import lms.coursehub.helpers.utils.QuizAdmissionGate;
 import lms.coursehub.models.dtos.quiz.CreateQuizResponseRequest;
 import lms.coursehub.models.dtos.quiz.QuizResponseDto;
 import lms.coursehub.models.dtos.quiz.UpdateQuizResponseRequest;
+import lms.coursehub.models.dtos.quiz.CreateQuizResponseAnswerDto;
+import lms.coursehub.services.QuizAttemptService;
 import lms.coursehub.services.QuizResponseService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,12 +20,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class QuizResponseController {
     private final QuizResponseService quizResponseService;
+    private final QuizAttemptService quizAttemptService;
+    // Quiz open / close bursts on the write endpoints are admitted per quiz
+    private final QuizAdmissionGate quizAdmissionGate;
 
     @PostMapping()
     public ResponseEntity<QuizResponseDto> createQuizResponse(
             @PathVariable UUID topicId,
             @RequestBody CreateQuizResponseRequest request) {
-        return ResponseEntity.ok(quizResponseService.createQuizResponse(topicId, request));
+        return ResponseEntity.ok(quizAdmissionGate.admit(topicId,
+                () -> quizResponseService.createQuizResponse(topicId, request)));
     }
 
     @GetMapping()
@@ -46,6 +54,30 @@ public class QuizResponseController {
             @PathVariable UUID topicId,
             @PathVariable UUID id,
             @RequestBody UpdateQuizResponseRequest request) {
-        return ResponseEntity.ok(quizResponseService.updateQuizResponse(topicId, id, request));
+        return ResponseEntity.ok(quizAdmissionGate.admit(topicId,
+                () -> quizResponseService.updateQuizResponse(topicId, id, request)));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/attempts")
+    public ResponseEntity<QuizResponseDto> startAttempt(@PathVariable UUID topicId) {
+        return ResponseEntity.ok(quizAdmissionGate.admit(topicId, () -> quizAttemptService.startAttempt(topicId)));
+    }
+
+    @PutMapping("/{id}/answers")
+    public ResponseEntity<Void> saveAnswers(
+            @PathVariable UUID topicId,
+            @PathVariable UUID id,
+            @RequestBody List<CreateQuizResponseAnswerDto> answers) {
+        quizAttemptService.saveAnswers(topicId, id, answers);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+
+    @PostMapping("/{id}/submit")
+    public ResponseEntity<QuizResponseDto> submitAttempt(
+            @PathVariable UUID topicId,
+            @PathVariable UUID id,
+            @RequestBody(required = false) CreateQuizResponseRequest request) {
+        return ResponseEntity.ok(quizAdmissionGate.admit(topicId, () -> quizAttemptService.submitAttempt(topicId, id,
+                request != null ? request.getAnswers() : null)));
+    }
+}
@@ -0,0 +1,32 @@
+package lms.coursehub.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lms.coursehub.services.QuizStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Maintenance commands for the incrementally maintained quiz statistics
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/quiz-stats")
+@Tag(name = "Quiz Statistics")
+public class QuizStatsController {
+
+    private final QuizStatsService quizStatsService;
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAll() {
+        int quizCount = quizStatsService.rebuildAll();
+        return ResponseEntity.ok(Map.of("message", "Quiz statistics rebuilt", "quizCount", quizCount));
+    }
+
+    @PostMapping("/{topicQuizId}/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild(@PathVariable UUID topicQuizId) {
+        quizStatsService.rebuild(topicQuizId);
+        return ResponseEntity.ok(Map.of("message", "Quiz statistics rebuilt", "quizCount", 1));
+    }
+}
@@ -0,0 +1,50 @@
+package lms.coursehub.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lms.coursehub.helpers.utils.MarkHistogram;
+import lms.coursehub.models.dtos.reports.ReportJobDto;
+import lms.coursehub.services.ReportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Course-wide reports computed in the background: submit, poll the job, then fetch the result
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/course/{courseId}/report-jobs")
+@Tag(name = "Report Jobs")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobDto> submitReportJob(
+            @PathVariable String courseId,
+            @RequestParam String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) List<Double> binEdges,
+            @RequestParam(required = false) Double binWidth) {
+        ReportJobDto job = reportJobService.submit(courseId, type, start, end,
+                MarkHistogram.resolveEdges(binEdges, binWidth));
+        // A cached result is returned as a finished job
+        HttpStatus status = "DONE".equals(job.getStatus()) ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobDto> getReportJob(@PathVariable String courseId, @PathVariable UUID jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(courseId, jobId));
+    }
+
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<Object> getReportJobResult(@PathVariable String courseId, @PathVariable UUID jobId) {
+        return ResponseEntity.ok(reportJobService.getResult(courseId, jobId));
+    }
+}
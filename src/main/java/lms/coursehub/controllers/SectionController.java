@@ -1,15 +1,23 @@
 package lms.coursehub.controllers;
 
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import lms.coursehub.helpers.caches.CourseOutlineCache;
 import lms.coursehub.models.dtos.section.CreateSectionRequest;
 import lms.coursehub.models.dtos.section.UpdateSectionRequest;
 import lms.coursehub.models.dtos.section.SectionResponseDto;
+import lms.coursehub.services.CourseVersionService;
 import lms.coursehub.services.SectionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -57,10 +65,23 @@ public class SectionController {
 class CourseSectionController {
 
     private final SectionService sectionService;
+    private final CourseOutlineCache courseOutlineCache;
+    private final CourseVersionService courseVersionService;
 
+    // The section list is served from the pre-serialized course outline cache; the
+    // ETag check only needs the course's content version
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = SectionResponseDto.class))))
     @GetMapping
-    public ResponseEntity<List<SectionResponseDto>> getSectionsByCourse(@PathVariable String courseId) {
-        List<SectionResponseDto> responses = sectionService.getSectionsByCourse(courseId);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<byte[]> getSectionsByCourse(@PathVariable String courseId, WebRequest webRequest) {
+        long version = courseVersionService.getVersion(courseId);
+        String etag = courseVersionService.etag(version, "sections");
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+
+        byte[] responses = courseOutlineCache.getOrBuild(courseId, CourseOutlineCache.View.SECTIONS, version,
+                () -> sectionService.getSectionsByCourse(courseId));
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(responses);
     }
 }
\ No newline at end of file
@@ -2,18 +2,25 @@ package lms.coursehub.controllers;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import lms.coursehub.helpers.utils.MarkHistogram;
 import lms.coursehub.models.dtos.reports.SingleAssignmentReportDto;
 import lms.coursehub.models.dtos.reports.SingleQuizReportDto;
+import lms.coursehub.models.dtos.topic.BulkCreateTopicRequest;
 import lms.coursehub.models.dtos.topic.CreateTopicRequest;
 import lms.coursehub.models.dtos.topic.SaveMeetingHistoryRequest;
+import lms.coursehub.models.dtos.topic.TopicPageDto;
 import lms.coursehub.models.dtos.topic.TopicResponseDto;
 import lms.coursehub.models.dtos.topic.UpdateTopicRequest;
+import lms.coursehub.services.CourseVersionService;
+import lms.coursehub.services.QuizPaperService;
 import lms.coursehub.services.TopicService;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -26,6 +33,8 @@ import java.util.UUID;
 public class TopicController {
 
     private final TopicService topicService;
+    private final CourseVersionService courseVersionService;
+    private final QuizPaperService quizPaperService;
 
     @PostMapping
     public ResponseEntity<TopicResponseDto> createTopic(
@@ -36,13 +45,29 @@ public class TopicController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Import many topics in one transaction (e.g. when migrating a course)
+    @PostMapping("/bulk")
+    public ResponseEntity<List<TopicResponseDto>> createTopics(
+            @PathVariable String courseId,
+            @Valid @RequestBody BulkCreateTopicRequest request) {
+
+        List<TopicResponseDto> responses = topicService.createTopics(courseId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+    }
+
     @GetMapping("/{topicId}")
     public ResponseEntity<TopicResponseDto> getTopic(
             @PathVariable String courseId,
-            @PathVariable UUID topicId) {
+            @PathVariable UUID topicId,
+            WebRequest webRequest) {
+
+        String etag = courseVersionService.etag(courseVersionService.getVersion(courseId), "topic-" + topicId);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
 
         TopicResponseDto response = topicService.getTopic(courseId, topicId);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @PutMapping("/{topicId}")
@@ -64,21 +89,44 @@ public class TopicController {
         return ResponseEntity.noContent().build();
     }
 
+    // Student-facing quiz paper, served pre-serialized; only the content version is read on a hit
+    @GetMapping("/{topicId}/quiz-paper")
+    public ResponseEntity<byte[]> getQuizPaper(
+            @PathVariable String courseId,
+            @PathVariable UUID topicId,
+            WebRequest webRequest) {
+
+        long version = courseVersionService.getVersion(courseId);
+        String etag = courseVersionService.etag(version, "quiz-paper-" + topicId);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+
+        byte[] paper = quizPaperService.getPaper(courseId, topicId, version);
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(paper);
+    }
+
     @GetMapping("/{topicId}/quiz-report")
     public ResponseEntity<SingleQuizReportDto> getQuizReport(
             @PathVariable String courseId,
-            @PathVariable UUID topicId) {
+            @PathVariable UUID topicId,
+            @RequestParam(required = false) List<Double> binEdges,
+            @RequestParam(required = false) Double binWidth) {
 
-        SingleQuizReportDto report = topicService.getSingleQuizReport(courseId, topicId);
+        SingleQuizReportDto report = topicService.getSingleQuizReport(courseId, topicId,
+                MarkHistogram.resolveEdges(binEdges, binWidth));
         return ResponseEntity.ok(report);
     }
 
     @GetMapping("/{topicId}/assignment-report")
     public ResponseEntity<SingleAssignmentReportDto> getAssignmentReport(
             @PathVariable String courseId,
-            @PathVariable UUID topicId) {
+            @PathVariable UUID topicId,
+            @RequestParam(required = false) List<Double> binEdges,
+            @RequestParam(required = false) Double binWidth) {
 
-        SingleAssignmentReportDto report = topicService.getSingleAssignmentReport(courseId, topicId);
+        SingleAssignmentReportDto report = topicService.getSingleAssignmentReport(courseId, topicId,
+                MarkHistogram.resolveEdges(binEdges, binWidth));
         return ResponseEntity.ok(report);
     }
 
@@ -102,15 +150,34 @@ class UserTopicController {
 
     private final TopicService topicService;
 
+    // Passing cursor or limit switches to keyset pages; the continuation token is
+    // returned in the X-Next-Cursor header so the body keeps its list shape
     @GetMapping("/quizzes")
-    public ResponseEntity<List<TopicResponseDto>> getAllQuizzesOfUser() {
-        List<TopicResponseDto> responses = topicService.getAllQuizzesOfUser();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<TopicResponseDto>> getAllQuizzesOfUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(topicService.getAllQuizzesOfUser());
+        }
+        return toPageResponse(topicService.toLegacyPage(topicService.getTypedTopicPageOfUser("quiz", cursor, limit)));
     }
 
     @GetMapping("/assignments")
-    public ResponseEntity<List<TopicResponseDto>> getAllAssignmentsOfUser() {
-        List<TopicResponseDto> responses = topicService.getAllAssignmentsOfUser();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<TopicResponseDto>> getAllAssignmentsOfUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(topicService.getAllAssignmentsOfUser());
+        }
+        return toPageResponse(topicService.toLegacyPage(
+                topicService.getTypedTopicPageOfUser("assignment", cursor, limit)));
+    }
+
+    private ResponseEntity<List<TopicResponseDto>> toPageResponse(TopicPageDto<TopicResponseDto> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return builder.body(page.getItems());
     }
 }
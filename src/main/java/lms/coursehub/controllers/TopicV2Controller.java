@@ -0,0 +1,72 @@
+package lms.coursehub.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lms.coursehub.models.dtos.topic.TopicPageDto;
+import lms.coursehub.models.dtos.topic.TypedTopicResponseDto;
+import lms.coursehub.services.CourseVersionService;
+import lms.coursehub.services.TopicService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+// v2 topic reads: "data" is a typed object instead of a JSON string
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v2")
+@Tag(name = "Topic Management v2")
+public class TopicV2Controller {
+
+    private final TopicService topicService;
+    private final CourseVersionService courseVersionService;
+
+    @GetMapping("/course/{courseId}/topic/{topicId}")
+    public ResponseEntity<TypedTopicResponseDto> getTopic(
+            @PathVariable String courseId,
+            @PathVariable UUID topicId,
+            WebRequest webRequest) {
+
+        String etag = courseVersionService.etag(courseVersionService.getVersion(courseId), "topic-v2-" + topicId);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+
+        TypedTopicResponseDto response = topicService.getTypedTopic(courseId, topicId);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    // Keyset-paginated: pass the previous page's nextCursor to continue
+    @GetMapping("/course/{courseId}/topics")
+    public ResponseEntity<TopicPageDto<TypedTopicResponseDto>> getAllTopicsForCourse(
+            @PathVariable String courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TopicPageDto<TypedTopicResponseDto> page = topicService.getTypedTopicPageForCourse(courseId, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/topic/section/{sectionId}")
+    public ResponseEntity<List<TypedTopicResponseDto>> getAllTopicsForSection(@PathVariable UUID sectionId) {
+        List<TypedTopicResponseDto> responses = topicService.getAllTypedTopicsForSection(sectionId);
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/user/topics/quizzes")
+    public ResponseEntity<TopicPageDto<TypedTopicResponseDto>> getQuizzesOfUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TopicPageDto<TypedTopicResponseDto> page = topicService.getTypedTopicPageOfUser("quiz", cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/user/topics/assignments")
+    public ResponseEntity<TopicPageDto<TypedTopicResponseDto>> getAssignmentsOfUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TopicPageDto<TypedTopicResponseDto> page = topicService.getTypedTopicPageOfUser("assignment", cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,110 @@
+package lms.coursehub.helpers.caches;
+
+import lms.coursehub.helpers.utils.AnswerKey;
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.repositories.QuestionRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Size-bounded LRU cache of compiled answer keys, keyed by quiz. A key is
+ * dropped after commit when the quiz's question list changes or one of its
+ * questions is edited; a key compiled while such a change committed is used
+ * once but not cached.
+ */
+@Component
+public class AnswerKeyCache {
+
+    private final QuestionRepo questionRepo;
+    private final int maxEntries;
+
+    private final Map<UUID, AnswerKey> keys;
+    // Quizzes of every question on a cached key, to route question edits
+    private final Map<UUID, Set<UUID>> quizzesByQuestion = new HashMap<>();
+    private long generation;
+
+    public AnswerKeyCache(QuestionRepo questionRepo,
+            @Value("${coursehub.cache.answer-keys.max-entries:1000}") int maxEntries) {
+        this.questionRepo = questionRepo;
+        this.maxEntries = maxEntries;
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, AnswerKey> eldest) {
+                if (size() > AnswerKeyCache.this.maxEntries) {
+                    unlink(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public AnswerKey get(UUID topicQuizId) {
+        long loadGeneration;
+        synchronized (this) {
+            AnswerKey key = keys.get(topicQuizId);
+            if (key != null) {
+                return key;
+            }
+            loadGeneration = generation;
+        }
+
+        AnswerKey key = AnswerKey.compile(questionRepo.findWithChoicesByTopicQuizId(topicQuizId));
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                keys.put(topicQuizId, key);
+                for (String questionId : key.getQuestionIds()) {
+                    quizzesByQuestion.computeIfAbsent(UUID.fromString(questionId), id -> new HashSet<>())
+                            .add(topicQuizId);
+                }
+            }
+        }
+        return key;
+    }
+
+    // The quiz's question list changed
+    public void quizChanged(UUID topicQuizId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                AnswerKey key = keys.remove(topicQuizId);
+                if (key != null) {
+                    unlink(topicQuizId, key);
+                }
+            }
+        });
+    }
+
+    // A question (text, type, marks, choices) was edited
+    public void questionChanged(UUID questionId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                Set<UUID> quizIds = quizzesByQuestion.remove(questionId);
+                if (quizIds != null) {
+                    for (UUID topicQuizId : quizIds) {
+                        AnswerKey key = keys.remove(topicQuizId);
+                        if (key != null) {
+                            unlink(topicQuizId, key);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private void unlink(UUID topicQuizId, AnswerKey key) {
+        for (String questionId : key.getQuestionIds()) {
+            UUID id = UUID.fromString(questionId);
+            Set<UUID> quizIds = quizzesByQuestion.get(id);
+            if (quizIds != null) {
+                quizIds.remove(topicQuizId);
+                if (quizIds.isEmpty()) {
+                    quizzesByQuestion.remove(id);
+                }
+            }
+        }
+    }
+}
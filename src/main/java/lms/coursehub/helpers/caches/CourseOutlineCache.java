@@ -0,0 +1,116 @@
+package lms.coursehub.helpers.caches;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.models.dtos.cache.CacheStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache of serialized course outlines (course detail and
+ * section list), keyed by course id, view and the course's content version
+ * (see CourseVersionService). A bumped version makes old entries unreachable;
+ * they are also dropped eagerly once the writing transaction commits.
+ */
+@Component
+public class CourseOutlineCache {
+
+    public enum View {
+        COURSE, SECTIONS
+    }
+
+    private record Key(String courseId, View view, long version) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+
+    private final Map<Key, byte[]> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CourseOutlineCache(ObjectMapper objectMapper,
+            @Value("${coursehub.cache.course-outline.max-entries:1000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                if (size() > CourseOutlineCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the cached JSON of the given outline view at {@code version},
+     * building and caching it with {@code builder} on a miss
+     */
+    public byte[] getOrBuild(String courseId, View view, long version, Supplier<?> builder) {
+        Key key = new Key(courseId, view, version);
+
+        byte[] cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(builder.get());
+        } catch (JsonProcessingException e) {
+            throw new CustomException("Failed to serialize course outline", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        synchronized (entries) {
+            entries.put(key, json);
+        }
+        return json;
+    }
+
+    /**
+     * Drop every cached view of a course. Inside a transaction this happens
+     * after commit, once the new content version is visible to readers.
+     */
+    public void invalidate(String courseId) {
+        if (courseId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> evict(courseId));
+    }
+
+    public CacheStatsDto getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatsDto("course-outline", size, maxEntries, hitCount, missCount, evictions.sum(),
+                requests == 0 ? 0.0 : (double) hitCount / requests);
+    }
+
+    private void evict(String courseId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.courseId().equals(courseId));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package lms.coursehub.helpers.caches;
+
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.models.entities.QuizStudentStat;
+import lms.coursehub.repositories.AssignmentResponseRepo;
+import lms.coursehub.repositories.CourseRepo;
+import lms.coursehub.repositories.QuizStudentStatRepo;
+import lms.coursehub.repositories.TopicRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-course columnar gradebook: students get dense indexes and every quiz /
+ * assignment is one double[] of base-10 marks (NaN = no mark), so analytics
+ * are loops over primitive arrays instead of maps of boxed marks.
+ *
+ * A gradebook is built on first use and rebuilt when the course content
+ * version or the enrolled roster (MembershipCache entry, which also expires)
+ * changed. Quiz submissions and response deletions update single cells after
+ * commit; a quiz whose stats were rebuilt drops its course's gradebook. A
+ * gradebook loaded while one of its marks changed is returned but not cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradebookCache {
+
+    private final CourseRepo courseRepo;
+    private final TopicRepo topicRepo;
+    private final QuizStudentStatRepo quizStudentStatRepo;
+    private final AssignmentResponseRepo assignmentResponseRepo;
+    private final MembershipCache membershipCache;
+
+    private final Map<String, CourseGradebook> gradebooks = new ConcurrentHashMap<>();
+    // Course of every column of a loaded gradebook, to route cell updates
+    private final Map<UUID, String> courseByTopic = new ConcurrentHashMap<>();
+    // Bumped inside the gradebook's compute on every change, so a load compares atomically
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    public CourseGradebook get(String courseId) {
+        long version = courseRepo.findContentVersionById(courseId)
+                .orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
+        Map<UUID, LocalDateTime> roster = membershipCache.getStudents(courseId);
+
+        CourseGradebook gradebook = gradebooks.get(courseId);
+        // The membership cache hands out the same map until the roster changes or expires
+        if (gradebook == null || gradebook.contentVersion != version || gradebook.roster != roster) {
+            gradebook = load(courseId, version, roster);
+        }
+        return gradebook;
+    }
+
+    // A student's mark for a quiz/assignment changed (null = no longer has one)
+    public void markChanged(UUID topicId, UUID studentId, Double mark) {
+        TransactionHooks.afterCommit(() -> {
+            String courseId = courseByTopic.get(topicId);
+            if (courseId != null) {
+                gradebooks.compute(courseId, (id, gradebook) -> {
+                    generations.merge(id, 1L, Long::sum);
+                    if (gradebook != null) {
+                        gradebook.set(topicId, studentId, mark != null ? mark : Double.NaN);
+                    }
+                    return gradebook;
+                });
+            }
+        });
+    }
+
+    // Many marks of a topic changed at once; the course's gradebook is rebuilt on next use
+    public void columnChanged(UUID topicId) {
+        TransactionHooks.afterCommit(() -> {
+            String courseId = courseByTopic.get(topicId);
+            if (courseId != null) {
+                gradebooks.compute(courseId, (id, gradebook) -> {
+                    generations.merge(id, 1L, Long::sum);
+                    return null;
+                });
+            }
+        });
+    }
+
+    /**
+     * Build the course's gradebook and cache it unless one of its marks changed
+     * while loading. Columns are routed before the marks are read, so a change
+     * committed later is either seen by the read or rejects the result.
+     */
+    private CourseGradebook load(String courseId, long version, Map<UUID, LocalDateTime> roster) {
+        List<Object[]> columns = topicRepo.findGradedColumnsByCourseId(courseId);
+        CourseGradebook gradebook = new CourseGradebook(version, roster, columns);
+        for (UUID topicId : gradebook.topicIds) {
+            courseByTopic.put(topicId, courseId);
+        }
+        long generation = generations.getOrDefault(courseId, 0L);
+
+        for (Object[] row : quizStudentStatRepo.findWithGradingMethodByCourseId(courseId)) {
+            QuizStudentStat stat = (QuizStudentStat) row[0];
+            gradebook.set(stat.getTopicQuizId(), stat.getStudentId(), stat.markFor((String) row[1]));
+        }
+        for (Object[] row : assignmentResponseRepo.findMarksByCourseId(courseId)) {
+            // Assignment marks are 0-100; the reports use base 10
+            gradebook.set((UUID) row[1], (UUID) row[0], ((BigDecimal) row[2]).doubleValue() / 10.0);
+        }
+        gradebooks.compute(courseId, (id, current) ->
+                generations.getOrDefault(id, 0L) == generation ? gradebook : current);
+        return gradebook;
+    }
+
+    /**
+     * Students x graded topics of one course. Cells are updated in place;
+     * readers may see a mark change mid-loop, which is fine for analytics.
+     */
+    public static final class CourseGradebook {
+        private final long contentVersion;
+        private final Map<UUID, LocalDateTime> roster;
+
+        private final UUID[] studentIds;
+        private final Map<UUID, Integer> studentIndex;
+        // Join time (epoch seconds, UTC) per student; MIN_VALUE when unknown
+        private final long[] joinedAt;
+
+        private final UUID[] topicIds;
+        private final Map<UUID, Integer> columnIndex;
+        private final String[] types;
+        // Close time per column; MAX_VALUE when the topic never closes
+        private final long[] closeAt;
+        // marks[column][student], NaN = no mark
+        private final double[][] marks;
+
+        CourseGradebook(long contentVersion, Map<UUID, LocalDateTime> roster, List<Object[]> columns) {
+            this.contentVersion = contentVersion;
+            this.roster = roster;
+
+            int studentCount = roster.size();
+            this.studentIds = new UUID[studentCount];
+            this.studentIndex = new HashMap<>(studentCount * 2);
+            this.joinedAt = new long[studentCount];
+            int s = 0;
+            for (Map.Entry<UUID, LocalDateTime> entry : roster.entrySet()) {
+                studentIds[s] = entry.getKey();
+                studentIndex.put(entry.getKey(), s);
+                joinedAt[s] = entry.getValue() != null ? entry.getValue().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+                s++;
+            }
+
+            int columnCount = columns.size();
+            this.topicIds = new UUID[columnCount];
+            this.columnIndex = new HashMap<>(columnCount * 2);
+            this.types = new String[columnCount];
+            this.closeAt = new long[columnCount];
+            this.marks = new double[columnCount][];
+            for (int c = 0; c < columnCount; c++) {
+                Object[] column = columns.get(c);
+                topicIds[c] = (UUID) column[0];
+                columnIndex.put(topicIds[c], c);
+                types[c] = ((String) column[1]).toLowerCase();
+                closeAt[c] = column[2] != null ? ((LocalDateTime) column[2]).toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+                marks[c] = new double[studentCount];
+                Arrays.fill(marks[c], Double.NaN);
+            }
+        }
+
+        public int getStudentCount() {
+            return studentIds.length;
+        }
+
+        public UUID getStudentId(int student) {
+            return studentIds[student];
+        }
+
+        // Column of a quiz/assignment, -1 when the course has no such graded topic
+        public int columnOf(UUID topicId) {
+            Integer column = columnIndex.get(topicId);
+            return column != null ? column : -1;
+        }
+
+        public String getType(int column) {
+            return types[column];
+        }
+
+        public double getMark(int column, int student) {
+            return marks[column][student];
+        }
+
+        /**
+         * Average mark per student over the given columns, counting only marks
+         * of students enrolled by the topic's close; NaN for students with none
+         */
+        public double[] averageOver(int[] columns) {
+            int studentCount = studentIds.length;
+            double[] sums = new double[studentCount];
+            int[] counts = new int[studentCount];
+            for (int c : columns) {
+                double[] column = marks[c];
+                long close = closeAt[c];
+                for (int s = 0; s < studentCount; s++) {
+                    double mark = column[s];
+                    if (!Double.isNaN(mark) && joinedAt[s] <= close) {
+                        sums[s] += mark;
+                        counts[s]++;
+                    }
+                }
+            }
+            for (int s = 0; s < studentCount; s++) {
+                sums[s] = counts[s] == 0 ? Double.NaN : sums[s] / counts[s];
+            }
+            return sums;
+        }
+
+        void set(UUID topicId, UUID studentId, double mark) {
+            Integer column = columnIndex.get(topicId);
+            Integer student = studentIndex.get(studentId);
+            if (column != null && student != null) {
+                marks[column][student] = mark;
+            }
+        }
+    }
+}
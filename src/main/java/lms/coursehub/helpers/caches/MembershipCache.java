@@ -0,0 +1,138 @@
+package lms.coursehub.helpers.caches;
+
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.repositories.EnrollmentDetailRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enrollment sets in both directions: student -> enrolled course ids and
+ * course -> enrolled student ids (with join dates). Entries are loaded on first
+ * use with an id-only query and then kept up to date by CourseService /
+ * UserService when a student joins or leaves a course. Loaded entries expire
+ * after a TTL so enrollments changed on another node are picked up.
+ *
+ * Values are immutable; updates replace them. Every enrollment change bumps
+ * the generation of the student and the course; a set loaded while such a
+ * change committed is returned but not stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class MembershipCache {
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    private final EnrollmentDetailRepo enrollmentDetailRepo;
+
+    @Value("${coursehub.cache.membership.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<UUID, Entry<Set<String>>> coursesByStudent = new ConcurrentHashMap<>();
+    private final Map<String, Entry<Map<UUID, LocalDateTime>>> studentsByCourse = new ConcurrentHashMap<>();
+    // Changed together with the entry of the same key (inside its compute), so a load compares atomically
+    private final Map<UUID, Long> studentGenerations = new ConcurrentHashMap<>();
+    private final Map<String, Long> courseGenerations = new ConcurrentHashMap<>();
+
+    public Set<String> getCourseIds(UUID studentId) {
+        Entry<Set<String>> entry = coursesByStudent.get(studentId);
+        if (entry == null || isExpired(entry)) {
+            long generation = studentGenerations.getOrDefault(studentId, 0L);
+            Entry<Set<String>> loaded = new Entry<>(
+                    Set.copyOf(enrollmentDetailRepo.findCourseIdsByStudentId(studentId)), now());
+            coursesByStudent.compute(studentId, (id, current) ->
+                    studentGenerations.getOrDefault(id, 0L) == generation ? loaded : current);
+            entry = loaded;
+        }
+        return entry.value();
+    }
+
+    // Student id -> join date
+    public Map<UUID, LocalDateTime> getStudents(String courseId) {
+        Entry<Map<UUID, LocalDateTime>> entry = studentsByCourse.get(courseId);
+        if (entry == null || isExpired(entry)) {
+            long generation = courseGenerations.getOrDefault(courseId, 0L);
+            Map<UUID, LocalDateTime> students = new HashMap<>();
+            for (Object[] row : enrollmentDetailRepo.findStudentIdsAndJoinDatesByCourseId(courseId)) {
+                students.put((UUID) row[0], (LocalDateTime) row[1]);
+            }
+            Entry<Map<UUID, LocalDateTime>> loaded = new Entry<>(Collections.unmodifiableMap(students), now());
+            studentsByCourse.compute(courseId, (id, current) ->
+                    courseGenerations.getOrDefault(id, 0L) == generation ? loaded : current);
+            entry = loaded;
+        }
+        return entry.value();
+    }
+
+    // Students who joined the course no later than the given time
+    public List<UUID> getStudentIdsJoinedBefore(String courseId, LocalDateTime before) {
+        return getStudents(courseId).entrySet().stream()
+                .filter(e -> e.getValue() == null || !e.getValue().isAfter(before))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Record an enrollment once the enrolling transaction commits. Only loaded
+     * entries are updated; absent ones are read fresh on next use, and loads
+     * already running are not stored.
+     */
+    public void enrolled(UUID studentId, String courseId, LocalDateTime joinDate) {
+        TransactionHooks.afterCommit(() -> {
+            coursesByStudent.compute(studentId, (id, entry) -> {
+                studentGenerations.merge(id, 1L, Long::sum);
+                if (entry == null) {
+                    return null;
+                }
+                Set<String> courseIds = new HashSet<>(entry.value());
+                courseIds.add(courseId);
+                return new Entry<>(Set.copyOf(courseIds), entry.loadedAt());
+            });
+            studentsByCourse.compute(courseId, (id, entry) -> {
+                courseGenerations.merge(id, 1L, Long::sum);
+                if (entry == null) {
+                    return null;
+                }
+                Map<UUID, LocalDateTime> students = new HashMap<>(entry.value());
+                students.put(studentId, joinDate != null ? joinDate : LocalDateTime.now());
+                return new Entry<>(Collections.unmodifiableMap(students), entry.loadedAt());
+            });
+        });
+    }
+
+    public void left(UUID studentId, String courseId) {
+        TransactionHooks.afterCommit(() -> {
+            coursesByStudent.compute(studentId, (id, entry) -> {
+                studentGenerations.merge(id, 1L, Long::sum);
+                if (entry == null) {
+                    return null;
+                }
+                Set<String> courseIds = new HashSet<>(entry.value());
+                courseIds.remove(courseId);
+                return new Entry<>(Set.copyOf(courseIds), entry.loadedAt());
+            });
+            studentsByCourse.compute(courseId, (id, entry) -> {
+                courseGenerations.merge(id, 1L, Long::sum);
+                if (entry == null) {
+                    return null;
+                }
+                Map<UUID, LocalDateTime> students = new HashMap<>(entry.value());
+                students.remove(studentId);
+                return new Entry<>(Collections.unmodifiableMap(students), entry.loadedAt());
+            });
+        });
+    }
+
+    private boolean isExpired(Entry<?> entry) {
+        return now() - entry.loadedAt() > ttlSeconds * 1000;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
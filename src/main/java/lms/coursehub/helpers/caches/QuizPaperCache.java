@@ -0,0 +1,165 @@
+package lms.coursehub.helpers.caches;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.models.dtos.cache.CacheStatsDto;
+import lms.coursehub.models.dtos.quiz.QuizPaperDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache of pre-serialized quiz papers (see QuizPaperDto),
+ * keyed by course, quiz and the course's content version like the course
+ * outline cache. Concurrent misses on the same paper share one build: the
+ * first caller renders it and the others wait for its result, so a quiz
+ * opening for a whole class is loaded and serialized once.
+ */
+@Component
+public class QuizPaperCache {
+
+    // Serialized paper plus its open time, so access can be checked without loading the quiz
+    public record Paper(byte[] json, LocalDateTime open) {
+    }
+
+    private record Key(String courseId, UUID topicId, long version) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+
+    private final Map<Key, Paper> entries;
+    private final Map<Key, CompletableFuture<Paper>> building = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public QuizPaperCache(ObjectMapper objectMapper,
+            @Value("${coursehub.cache.quiz-papers.max-entries:500}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Paper> eldest) {
+                if (size() > QuizPaperCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean contains(String courseId, UUID topicId, long version) {
+        synchronized (entries) {
+            return entries.containsKey(new Key(courseId, topicId, version));
+        }
+    }
+
+    /**
+     * Return the paper of the quiz at {@code version}, rendering it with
+     * {@code builder} on a miss; callers missing while another one renders the
+     * same paper wait for that build
+     */
+    public Paper getOrBuild(String courseId, UUID topicId, long version, Supplier<QuizPaperDto> builder) {
+        Key key = new Key(courseId, topicId, version);
+        Paper cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        CompletableFuture<Paper> mine = new CompletableFuture<>();
+        CompletableFuture<Paper> running = building.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            // A build may have finished between the lookup and taking the slot
+            Paper paper = lookup(key);
+            if (paper == null) {
+                paper = render(builder.get());
+                synchronized (entries) {
+                    entries.put(key, paper);
+                }
+            }
+            mine.complete(paper);
+            return paper;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(key, mine);
+        }
+    }
+
+    /**
+     * Drop every cached paper of a course. Inside a transaction this happens
+     * after commit, once the new content version is visible to readers.
+     */
+    public void invalidate(String courseId) {
+        if (courseId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> evict(courseId));
+    }
+
+    public CacheStatsDto getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatsDto("quiz-papers", size, maxEntries, hitCount, missCount, evictions.sum(),
+                requests == 0 ? 0.0 : (double) hitCount / requests);
+    }
+
+    private Paper lookup(Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private Paper render(QuizPaperDto paper) {
+        try {
+            return new Paper(objectMapper.writeValueAsBytes(paper), paper.getOpen());
+        } catch (JsonProcessingException e) {
+            throw new CustomException("Failed to serialize quiz paper", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // The builder's exception is rethrown to every waiter
+    private static Paper await(CompletableFuture<Paper> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evict(String courseId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.courseId().equals(courseId));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package lms.coursehub.helpers.caches;
+
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.models.dtos.user.StudentReportDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Students' self-reports per (course, window), kept until the student submits
+ * again. Entries are tagged with the course content version, so added, removed
+ * or rescheduled quizzes / assignments also give a fresh report.
+ *
+ * Every submission bumps the student's generation; a report computed while a
+ * submission committed is returned but not stored.
+ */
+@Component
+public class StudentReportCache {
+
+    // Windows kept per student and course; the common case is the unbounded one
+    private static final int MAX_WINDOWS = 8;
+
+    private record Key(String courseId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record Entry(long contentVersion, StudentReportDto report) {
+    }
+
+    private final Map<UUID, Map<Key, Entry>> reportsByStudent = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+    // Bumped by clear(), for loads of students without a generation yet
+    private final AtomicLong epoch = new AtomicLong();
+
+    public StudentReportDto get(UUID studentId, String courseId, long contentVersion, LocalDateTime start,
+            LocalDateTime end, Supplier<StudentReportDto> loader) {
+        Key key = new Key(courseId, start, end);
+        Map<Key, Entry> reports = reportsByStudent.get(studentId);
+        Entry entry = reports != null ? reports.get(key) : null;
+        if (entry != null && entry.contentVersion() == contentVersion) {
+            return entry.report();
+        }
+
+        long loadEpoch = epoch.get();
+        long generation = generations.getOrDefault(studentId, 0L);
+        StudentReportDto report = loader.get();
+        if (generations.getOrDefault(studentId, 0L) == generation && epoch.get() == loadEpoch) {
+            Map<Key, Entry> studentReports = reportsByStudent.computeIfAbsent(studentId,
+                    id -> new ConcurrentHashMap<>());
+            if (studentReports.size() >= MAX_WINDOWS && !studentReports.containsKey(key)) {
+                studentReports.clear();
+            }
+            studentReports.put(key, new Entry(contentVersion, report));
+        }
+        return report;
+    }
+
+    // The student submitted or withdrew work; their reports are recomputed once it commits
+    public void submitted(UUID studentId) {
+        TransactionHooks.afterCommit(() -> {
+            generations.merge(studentId, 1L, Long::sum);
+            reportsByStudent.remove(studentId);
+        });
+    }
+
+    // Stats changed outside submissions (e.g. the startup backfill): every report is recomputed
+    public void clear() {
+        epoch.incrementAndGet();
+        reportsByStudent.clear();
+    }
+}
@@ -0,0 +1,89 @@
+package lms.coursehub.helpers.caches;
+
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.models.dtos.reports.TeacherDashboardDto;
+import lms.coursehub.repositories.TopicRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Teachers' cross-course dashboards. An entry is dropped after commit when one
+ * of its courses changes (content, enrollment, submissions) and otherwise
+ * expires after a short TTL, which also covers changes made on other nodes.
+ *
+ * Loading a dashboard also records the course of every topic of the teacher,
+ * so submissions route their invalidation without a query. A topic created
+ * after the load changes its course's content, which drops the dashboard, and
+ * the next load records it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeacherDashboardCache {
+
+    private record Entry(TeacherDashboardDto dashboard, long loadedAt, long generation) {
+    }
+
+    private final TopicRepo topicRepo;
+
+    @Value("${coursehub.cache.dashboard.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<UUID, Entry> dashboards = new ConcurrentHashMap<>();
+    // Teacher of every course on a loaded dashboard, to route invalidations
+    private final Map<String, UUID> teacherByCourse = new ConcurrentHashMap<>();
+    private final Map<UUID, String> courseByTopic = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+
+    public TeacherDashboardDto get(UUID teacherId, Supplier<TeacherDashboardDto> loader) {
+        long generation = generations.getOrDefault(teacherId, 0L);
+        Entry entry = dashboards.get(teacherId);
+        if (entry != null && entry.generation() == generation
+                && System.currentTimeMillis() - entry.loadedAt() <= ttlSeconds * 1000) {
+            return entry.dashboard();
+        }
+
+        TeacherDashboardDto dashboard = loader.get();
+        for (TeacherDashboardDto.CourseMetrics course : dashboard.getCourses()) {
+            teacherByCourse.put(course.getCourseId(), teacherId);
+        }
+        for (Object[] row : topicRepo.findIdsAndCourseIdsByCreatorId(teacherId)) {
+            courseByTopic.put((UUID) row[0], (String) row[1]);
+        }
+        dashboards.put(teacherId, new Entry(dashboard, System.currentTimeMillis(), generation));
+        return dashboard;
+    }
+
+    // A course's content, roster or submissions changed
+    public void courseChanged(String courseId) {
+        TransactionHooks.afterCommit(() -> {
+            UUID teacherId = teacherByCourse.get(courseId);
+            if (teacherId != null) {
+                invalidate(teacherId);
+            }
+        });
+    }
+
+    // Work was submitted to / removed from a quiz or assignment; no query on this (submit) path
+    public void topicChanged(UUID topicId) {
+        String courseId = courseByTopic.get(topicId);
+        if (courseId != null) {
+            courseChanged(courseId);
+        }
+    }
+
+    // The teacher's set of courses changed (created, cloned)
+    public void teacherChanged(UUID teacherId) {
+        TransactionHooks.afterCommit(() -> invalidate(teacherId));
+    }
+
+    private void invalidate(UUID teacherId) {
+        generations.merge(teacherId, 1L, Long::sum);
+        dashboards.remove(teacherId);
+    }
+}
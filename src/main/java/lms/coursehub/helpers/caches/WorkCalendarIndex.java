@@ -0,0 +1,178 @@
+package lms.coursehub.helpers.caches;
+
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.models.dtos.user.UserWorkResponseDto;
+import lms.coursehub.repositories.CourseRepo;
+import lms.coursehub.repositories.TopicRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-node index of the work items (quizzes, assignments, meetings) of every
+ * course, used to answer /user/work calendar queries without touching the
+ * topic tables.
+ *
+ * Each course is an immutable snapshot tagged with the course's content version
+ * (see CourseVersionService): items are sorted by open time and laid out as an
+ * implicit interval tree, so an overlap query only visits matching subtrees.
+ * Snapshots are loaded at startup, dropped by TopicService on topic writes, and
+ * reloaded whenever the persisted version moved on (e.g. after a write on
+ * another node).
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkCalendarIndex {
+
+    public static final List<String> WORK_TYPES = List.of("quiz", "assignment", "meeting");
+
+    private final TopicRepo topicRepo;
+    private final CourseRepo courseRepo;
+
+    private final Map<String, CourseWork> courses = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<String, Long> versions = toVersionMap(courseRepo.findAllContentVersions());
+        Map<String, List<UserWorkResponseDto>> itemsByCourse = topicRepo.findAllWork(WORK_TYPES).stream()
+                .collect(Collectors.groupingBy(UserWorkResponseDto::getCourseId));
+
+        versions.forEach((courseId, version) -> courses.put(courseId,
+                new CourseWork(version, itemsByCourse.getOrDefault(courseId, List.of()))));
+    }
+
+    /**
+     * Work items of the given courses whose open..close period overlaps the
+     * window, in calendar order. Without a window undated items are included too.
+     */
+    public List<UserWorkResponseDto> findWork(List<String> courseIds, List<String> types,
+            LocalDateTime start, LocalDateTime end) {
+        // One primary-key query tells which snapshots are still current
+        Map<String, Long> versions = toVersionMap(courseRepo.findContentVersionsByIdIn(courseIds));
+
+        List<UserWorkResponseDto> result = new ArrayList<>();
+        versions.forEach((courseId, version) -> {
+            CourseWork work = courses.get(courseId);
+            if (work == null || work.version != version) {
+                work = new CourseWork(version, topicRepo.findUserWork(List.of(courseId), WORK_TYPES, null, null));
+                courses.put(courseId, work);
+            }
+            work.collect(start, end, types, result);
+        });
+
+        result.sort(Comparator.comparing(UserWorkResponseDto::getOpen, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(UserWorkResponseDto::getTitle, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Drop a course's snapshot once the writing transaction commits; the next
+     * lookup reloads it
+     */
+    public void invalidate(String courseId) {
+        if (courseId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> courses.remove(courseId));
+    }
+
+    private static Map<String, Long> toVersionMap(List<Object[]> rows) {
+        Map<String, Long> versions = new HashMap<>();
+        for (Object[] row : rows) {
+            versions.put((String) row[0], (Long) row[1]);
+        }
+        return versions;
+    }
+
+    private static final class CourseWork {
+        private final long version;
+        // Dated items sorted by open; maxEnd[i] is the latest end in the subtree rooted at i
+        private final UserWorkResponseDto[] dated;
+        private final LocalDateTime[] ends;
+        private final LocalDateTime[] maxEnd;
+        private final List<UserWorkResponseDto> undated;
+
+        CourseWork(long version, List<UserWorkResponseDto> items) {
+            this.version = version;
+            this.undated = items.stream().filter(item -> item.getOpen() == null).toList();
+            this.dated = items.stream()
+                    .filter(item -> item.getOpen() != null)
+                    .sorted(Comparator.comparing(UserWorkResponseDto::getOpen))
+                    .toArray(UserWorkResponseDto[]::new);
+            this.ends = new LocalDateTime[dated.length];
+            for (int i = 0; i < dated.length; i++) {
+                ends[i] = dated[i].getClose() != null ? dated[i].getClose() : dated[i].getOpen();
+            }
+            this.maxEnd = new LocalDateTime[dated.length];
+            build(0, dated.length);
+        }
+
+        private LocalDateTime build(int lo, int hi) {
+            if (lo >= hi) {
+                return null;
+            }
+            int mid = (lo + hi) >>> 1;
+            LocalDateTime max = ends[mid];
+            LocalDateTime left = build(lo, mid);
+            LocalDateTime right = build(mid + 1, hi);
+            if (left != null && left.isAfter(max)) {
+                max = left;
+            }
+            if (right != null && right.isAfter(max)) {
+                max = right;
+            }
+            maxEnd[mid] = max;
+            return max;
+        }
+
+        void collect(LocalDateTime start, LocalDateTime end, List<String> types, List<UserWorkResponseDto> out) {
+            if (start == null && end == null) {
+                for (UserWorkResponseDto item : dated) {
+                    addIfType(item, types, out);
+                }
+                undated.forEach(item -> addIfType(item, types, out));
+                return;
+            }
+            query(0, dated.length, start, end, types, out);
+        }
+
+        private void query(int lo, int hi, LocalDateTime start, LocalDateTime end, List<String> types,
+                List<UserWorkResponseDto> out) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // Nothing in this subtree ends inside the window
+            if (start != null && maxEnd[mid].isBefore(start)) {
+                return;
+            }
+            query(lo, mid, start, end, types, out);
+            // Items right of mid open even later
+            if (end != null && dated[mid].getOpen().isAfter(end)) {
+                return;
+            }
+            if (start == null || !ends[mid].isBefore(start)) {
+                addIfType(dated[mid], types, out);
+            }
+            query(mid + 1, hi, start, end, types, out);
+        }
+
+        private static void addIfType(UserWorkResponseDto item, List<String> types, List<UserWorkResponseDto> out) {
+            if (item.getType() != null && types.contains(item.getType().toLowerCase())) {
+                out.add(copy(item));
+            }
+        }
+
+        // The DTO is mutable, so callers never get the indexed instance
+        private static UserWorkResponseDto copy(UserWorkResponseDto item) {
+            return new UserWorkResponseDto(item.getTopicId(), item.getTitle(), item.getType(), item.getCourseId(),
+                    item.getCourseTitle(), item.getOpen(), item.getClose(), item.getSectionTitle());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package lms.coursehub.helpers.exceptions;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,6 +12,14 @@ import java.util.Date;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<CustomError> handleTooManyRequests(TooManyRequestsException exception, WebRequest webRequest) {
+        CustomError errorDetails = new CustomError(new Date(), exception.getMessage(), webRequest.getDescription(false));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(exception.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CustomError> handleGlobalException(Exception exception, WebRequest webRequest) {
         CustomError errorDetails = new CustomError(new Date(), exception.getMessage(), webRequest.getDescription(false));
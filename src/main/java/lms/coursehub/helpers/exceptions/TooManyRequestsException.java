@@ -0,0 +1,17 @@
+package lms.coursehub.helpers.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+// 429 Too Many Requests; the client should retry after the given number of seconds
+public class TooManyRequestsException extends CustomException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,160 @@
+package lms.coursehub.helpers.utils;
+
+import lms.coursehub.models.entities.Question;
+import lms.coursehub.models.entities.QuestionChoice;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable answer key of one quiz, compiled from its questions and choices so
+ * submissions are graded without touching the question tables. Answers are
+ * looked up by question id and graded with one hash lookup (one per selection
+ * for multiple-answer questions):
+ *
+ * - True/False: "true" / "false", full mark when it matches the correct answer
+ * - Choices Answer: the choice id or text; multiple-answer questions take a
+ *   comma-separated list and add up the selected choices
+ * - Short Answer: matched against the choice texts, ignoring case and extra
+ *   whitespace
+ *
+ * A choice's grade is the share of the question's default mark it earns, as
+ * a percentage or, when no grade of the question exceeds 1, as a fraction
+ * (negative for a penalty). When a question sets no grades, any correct choice
+ * of a single-answer question or accepted short answer earns the full mark; a
+ * multiple-answer question splits it between its correct choices, and its
+ * wrong choices split a penalty of the full mark. The total per question is
+ * kept within [0, default mark].
+ * Unknown questions and types are marked 0 and left for manual grading.
+ */
+public final class AnswerKey {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private enum Kind {
+        TRUE_FALSE, CHOICE, SHORT_ANSWER
+    }
+
+    private record CompiledQuestion(Kind kind, double mark, boolean correctAnswer, boolean multiple,
+            Map<String, Double> fractions) {
+    }
+
+    private final Map<String, CompiledQuestion> questions;
+    // Every question of the quiz, including ones that cannot be auto-graded
+    private final Set<String> questionIds;
+
+    private AnswerKey(Map<String, CompiledQuestion> questions, Set<String> questionIds) {
+        this.questions = questions;
+        this.questionIds = questionIds;
+    }
+
+    public static AnswerKey compile(Collection<Question> questions) {
+        Map<String, CompiledQuestion> compiled = new HashMap<>(questions.size() * 2);
+        Set<String> questionIds = new HashSet<>(questions.size() * 2);
+        for (Question question : questions) {
+            questionIds.add(question.getId().toString());
+            Kind kind = kindOf(question.getType());
+            if (kind == null) {
+                continue;
+            }
+            double mark = question.getDefaultMark() != null ? question.getDefaultMark().doubleValue() : 1.0;
+            compiled.put(question.getId().toString(), new CompiledQuestion(kind, mark, question.isCorrectAnswer(),
+                    question.isMultiple(), kind == Kind.TRUE_FALSE ? Map.of() : fractions(kind, question)));
+        }
+        return new AnswerKey(Map.copyOf(compiled), Set.copyOf(questionIds));
+    }
+
+    public Set<String> getQuestionIds() {
+        return questionIds;
+    }
+
+    // Mark earned by the answer to the given question; 0 when it cannot be graded
+    public BigDecimal grade(String questionId, String answer) {
+        CompiledQuestion question = questionId != null ? questions.get(questionId) : null;
+        if (question == null || answer == null) {
+            return BigDecimal.ZERO;
+        }
+
+        double fraction = switch (question.kind()) {
+            case TRUE_FALSE -> {
+                String value = answer.trim();
+                yield value.equalsIgnoreCase(Boolean.toString(question.correctAnswer())) ? 1.0 : 0.0;
+            }
+            case CHOICE -> question.multiple() ? selectedFraction(question, answer) : fractionOf(question, answer);
+            case SHORT_ANSWER -> question.fractions().getOrDefault(normalize(answer), 0.0);
+        };
+        double mark = Math.max(0.0, Math.min(1.0, fraction)) * question.mark();
+        return BigDecimal.valueOf(mark);
+    }
+
+    private static double fractionOf(CompiledQuestion question, String selection) {
+        Map<String, Double> fractions = question.fractions();
+        Double fraction = fractions.get(selection.trim());
+        return fraction != null ? fraction : fractions.getOrDefault(normalize(selection), 0.0);
+    }
+
+    // Each distinct selection counts once
+    private static double selectedFraction(CompiledQuestion question, String answer) {
+        Set<String> seen = new HashSet<>();
+        double total = 0.0;
+        for (String selection : answer.split(",")) {
+            String value = selection.trim();
+            if (!value.isEmpty() && seen.add(normalize(value))) {
+                total += fractionOf(question, value);
+            }
+        }
+        return total;
+    }
+
+    // Choice id and normalized text -> fraction of the mark
+    private static Map<String, Double> fractions(Kind kind, Question question) {
+        List<QuestionChoice> choices = question.getQuestionChoices();
+        double maxGrade = choices.stream()
+                .filter(c -> c.getGrade() != null)
+                .mapToDouble(c -> Math.abs(c.getGrade().doubleValue()))
+                .max()
+                .orElse(0.0);
+        boolean graded = maxGrade > 0;
+        double scale = maxGrade <= 1.0 ? 1.0 : 100.0;
+        long correctCount = choices.stream().filter(QuestionChoice::isCorrect).count();
+        long wrongCount = choices.size() - correctCount;
+        boolean split = kind == Kind.CHOICE && question.isMultiple();
+
+        Map<String, Double> fractions = new HashMap<>(choices.size() * 4);
+        for (QuestionChoice choice : choices) {
+            double fraction;
+            if (graded) {
+                fraction = choice.getGrade() != null ? choice.getGrade().doubleValue() / scale : 0.0;
+            } else if (choice.isCorrect()) {
+                fraction = split ? 1.0 / correctCount : 1.0;
+            } else {
+                fraction = split && wrongCount > 0 ? -1.0 / wrongCount : 0.0;
+            }
+            if (kind == Kind.CHOICE) {
+                fractions.put(choice.getId().toString(), fraction);
+            }
+            if (choice.getText() != null) {
+                // Accepted short answers keep their best grade when texts repeat
+                fractions.merge(normalize(choice.getText()), fraction, Math::max);
+            }
+        }
+        return Map.copyOf(fractions);
+    }
+
+    private static Kind kindOf(String type) {
+        if (type == null) {
+            return null;
+        }
+        return switch (type.trim().toLowerCase()) {
+            case "true/false", "true_false" -> Kind.TRUE_FALSE;
+            case "choices answer", "multiple choice", "choice" -> Kind.CHOICE;
+            case "short answer", "short_answer" -> Kind.SHORT_ANSWER;
+            default -> null;
+        };
+    }
+
+    private static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase();
+    }
+}
@@ -0,0 +1,149 @@
+package lms.coursehub.helpers.utils;
+
+import lms.coursehub.helpers.exceptions.CustomException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Histogram of base-10 marks over ascending bucket edges: bucket i counts marks
+ * in [edges[i], edges[i + 1]), the last bucket is open-ended and marks below
+ * the first edge are not counted. Students without a mark are counted on their
+ * own (key -1 in the distribution map).
+ *
+ * Counting is a single pass into a long[]; histograms over the same edges
+ * merge by adding the arrays, so finer bins cost no extra passes.
+ */
+public final class MarkHistogram {
+
+    // The report bands: 0-2, 2-5, 5-8, 8+
+    public static final double[] DEFAULT_EDGES = { 0.0, 2.0, 5.0, 8.0 };
+
+    private static final double MAX_MARK = 10.0;
+    private static final int MAX_BUCKETS = 200;
+
+    private final double[] edges;
+    private final long[] counts;
+    private long noResponseCount;
+
+    public MarkHistogram(double[] edges) {
+        this.edges = edges;
+        this.counts = new long[edges.length];
+    }
+
+    /**
+     * Edges for a report request: the given edges, or steps of binWidth over
+     * 0..10; the report bands when neither is given
+     */
+    public static double[] resolveEdges(List<Double> edges, Double binWidth) {
+        if (edges != null && !edges.isEmpty()) {
+            if (edges.size() > MAX_BUCKETS) {
+                throw new CustomException("At most " + MAX_BUCKETS + " bin edges are allowed", HttpStatus.BAD_REQUEST);
+            }
+            double[] result = new double[edges.size()];
+            for (int i = 0; i < result.length; i++) {
+                Double edge = edges.get(i);
+                if (edge == null || !Double.isFinite(edge) || edge < 0 || (i > 0 && edge <= result[i - 1])) {
+                    throw new CustomException("Bin edges must be non-negative and strictly ascending",
+                            HttpStatus.BAD_REQUEST);
+                }
+                result[i] = edge;
+            }
+            return result;
+        }
+
+        if (binWidth != null) {
+            if (!(binWidth > 0) || MAX_MARK / binWidth > MAX_BUCKETS) {
+                throw new CustomException("Bin width must be positive and give at most " + MAX_BUCKETS + " bins",
+                        HttpStatus.BAD_REQUEST);
+            }
+            int bucketCount = (int) Math.ceil(MAX_MARK / binWidth - 1e-9);
+            double[] result = new double[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                // Rounded so 0.1-style widths give clean keys
+                result[i] = Math.round(i * binWidth * 1e6) / 1e6;
+            }
+            return result;
+        }
+
+        return DEFAULT_EDGES;
+    }
+
+    public int bucketOf(double mark) {
+        return bucketOf(edges, mark);
+    }
+
+    // Index of the bucket holding the mark (last edge <= mark), -1 below the first edge
+    public static int bucketOf(double[] edges, double mark) {
+        int lo = 0;
+        int hi = edges.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (edges[mid] <= mark) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    // Count the mark; returns its bucket (-1 if not counted)
+    public int add(double mark) {
+        int bucket = bucketOf(mark);
+        if (bucket >= 0) {
+            counts[bucket]++;
+        }
+        return bucket;
+    }
+
+    public void addNoResponse() {
+        noResponseCount++;
+    }
+
+    public MarkHistogram merge(MarkHistogram other) {
+        if (!Arrays.equals(edges, other.edges)) {
+            throw new IllegalArgumentException("Histograms have different bucket edges");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        noResponseCount += other.noResponseCount;
+        return this;
+    }
+
+    public double[] getEdges() {
+        return edges.clone();
+    }
+
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    public long getNoResponseCount() {
+        return noResponseCount;
+    }
+
+    /**
+     * Report form: lower edge -> count plus -1 -> no response. Whole-number
+     * edges are Integer keys, so the default bands serialize as before
+     * (8, 5, 2, 0, -1).
+     */
+    public Map<Number, Number> toDistribution() {
+        Map<Number, Number> distribution = new LinkedHashMap<>();
+        for (int i = counts.length - 1; i >= 0; i--) {
+            distribution.put(key(edges[i]), counts[i]);
+        }
+        distribution.put(-1, noResponseCount);
+        return distribution;
+    }
+
+    private static Number key(double edge) {
+        return edge == Math.rint(edge) && Math.abs(edge) < Integer.MAX_VALUE ? (Number) (int) edge : edge;
+    }
+}
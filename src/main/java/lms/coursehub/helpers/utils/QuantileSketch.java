@@ -0,0 +1,159 @@
+package lms.coursehub.helpers.utils;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch (KLL). Values go into level 0; a level that grows
+ * past its capacity is sorted and every other item is promoted to the next
+ * level with twice the weight. Lower levels get geometrically smaller
+ * capacities, so memory stays around 3k values however many are added, and
+ * rank error is roughly 1.7 / k. With k values or fewer the sketch is exact.
+ *
+ * Sketches merge by concatenating levels and compacting again, so per-topic
+ * sketches combine into course-level percentiles without the raw marks. The
+ * compaction offset alternates instead of being random, which keeps report
+ * output deterministic.
+ */
+public final class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private double[][] levels = { new double[16] };
+    private int[] sizes = new int[1];
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private boolean oddOffset;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    public QuantileSketch(int k) {
+        this.k = Math.max(8, k);
+    }
+
+    public void add(double value) {
+        append(0, value);
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (sizes[0] > capacity(0)) {
+            compact();
+        }
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compact();
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Value at the given rank (0..1), nearest-rank over the weighted retained
+     * values; NaN when nothing was added
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        // value and weight of every retained item, sorted by value
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        Integer[] order = new Integer[retained];
+        int index = 0;
+        long totalWeight = 0;
+        for (int level = 0; level < levels.length; level++) {
+            long weight = 1L << level;
+            for (int i = 0; i < sizes[level]; i++) {
+                values[index] = levels[level][i];
+                weights[index] = weight;
+                order[index] = index;
+                totalWeight += weight;
+                index++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double target = q * totalWeight;
+        long cumulative = 0;
+        for (int i : order) {
+            cumulative += weights[i];
+            if (cumulative >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    private void append(int level, double value) {
+        if (level >= levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            for (int h = 0; h <= level; h++) {
+                if (levels[h] == null) {
+                    levels[h] = new double[16];
+                }
+            }
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], sizes[level] * 2);
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    // The top level holds k items; each level below holds 2/3 of the one above
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compact() {
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] <= capacity(level)) {
+                continue;
+            }
+            double[] items = levels[level];
+            int size = sizes[level];
+            Arrays.sort(items, 0, size);
+
+            // An odd item out stays on this level
+            int kept = size % 2;
+            int offset = oddOffset ? 1 : 0;
+            oddOffset = !oddOffset;
+            for (int i = kept + offset; i < size; i += 2) {
+                append(level + 1, items[i]);
+            }
+            sizes[level] = kept;
+        }
+    }
+}
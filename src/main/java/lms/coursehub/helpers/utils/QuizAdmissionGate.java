@@ -0,0 +1,230 @@
+package lms.coursehub.helpers.utils;
+
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.helpers.exceptions.TooManyRequestsException;
+import lms.coursehub.models.dtos.admission.QuizAdmissionStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-quiz admission control for quiz response writes. Each quiz admits a
+ * bounded number of concurrent requests; up to a bounded number more wait (for
+ * at most the configured time) in arrival order, and anything beyond that is
+ * rejected with 429 and a Retry-After. A burst on one quiz then holds at most
+ * its share of the connection pool, and the rest of the site keeps working.
+ *
+ * Run the guarded work outside any transaction, so requests waiting here do
+ * not hold a connection.
+ */
+@Component
+public class QuizAdmissionGate {
+
+    private static final class Gate {
+        final Semaphore permits;
+        final AtomicInteger waiting = new AtomicInteger();
+        int users; // Requests holding a reference; only changed inside gates.compute
+
+        Gate(int maxConcurrent) {
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+    }
+
+    /**
+     * Wait times of one stats window, in milliseconds. Admitted requests only
+     * append to a lock-free queue; whoever pushes it past DRAIN_THRESHOLD (or
+     * reads the stats) folds it into the sketch, and requests arriving while
+     * that runs keep appending instead of waiting.
+     */
+    private static final class Window {
+        private static final int DRAIN_THRESHOLD = 1024;
+
+        final long start;
+        private final Queue<Double> recorded = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger recordedCount = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final QuantileSketch sketch = new QuantileSketch(); // Guarded by lock
+
+        Window(long start) {
+            this.start = start;
+        }
+
+        void record(double millis) {
+            recorded.add(millis);
+            if (recordedCount.incrementAndGet() >= DRAIN_THRESHOLD && lock.tryLock()) {
+                try {
+                    drain();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void mergeInto(QuantileSketch target) {
+            lock.lock();
+            try {
+                drain();
+                target.merge(sketch);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            Double millis;
+            while ((millis = recorded.poll()) != null) {
+                recordedCount.decrementAndGet();
+                sketch.add(millis);
+            }
+        }
+    }
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final long statsWindowMillis;
+
+    private final Map<UUID, Gate> gates = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    // Current and previous stats window; only replaced under rotationLock, about once per window
+    private volatile Window window = new Window(System.currentTimeMillis());
+    private volatile Window previousWindow;
+    private final Object rotationLock = new Object();
+
+    public QuizAdmissionGate(
+            @Value("${coursehub.admission.quiz.max-concurrent:4}") int maxConcurrent,
+            @Value("${coursehub.admission.quiz.max-queue:50}") int maxQueue,
+            @Value("${coursehub.admission.quiz.max-wait-ms:2000}") long maxWaitMillis,
+            @Value("${coursehub.admission.quiz.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${coursehub.admission.quiz.stats-window-seconds:60}") long statsWindowSeconds) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+        this.statsWindowMillis = statsWindowSeconds * 1000;
+    }
+
+    // Run the action once the quiz admits it; 429 when its queue is full or the wait times out
+    public <T> T admit(UUID topicId, Supplier<T> action) {
+        Gate gate = gates.compute(topicId, (id, existing) -> {
+            Gate g = existing != null ? existing : new Gate(maxConcurrent);
+            g.users++;
+            return g;
+        });
+        try {
+            long start = System.nanoTime();
+            acquire(gate);
+            recordWait((System.nanoTime() - start) / 1_000_000.0);
+            try {
+                return action.get();
+            } finally {
+                gate.permits.release();
+            }
+        } finally {
+            gates.computeIfPresent(topicId, (id, g) -> --g.users == 0 ? null : g);
+        }
+    }
+
+    public QuizAdmissionStatsDto getStats() {
+        long active = 0;
+        long queued = 0;
+        List<QuizAdmissionStatsDto.QuizLoad> quizzes = new ArrayList<>();
+        for (Map.Entry<UUID, Gate> entry : gates.entrySet()) {
+            Gate gate = entry.getValue();
+            int inUse = maxConcurrent - gate.permits.availablePermits();
+            int waiting = gate.waiting.get();
+            active += inUse;
+            queued += waiting;
+            quizzes.add(new QuizAdmissionStatsDto.QuizLoad(entry.getKey(), inUse, waiting));
+        }
+
+        QuantileSketch waits = new QuantileSketch();
+        Window current = currentWindow();
+        Window previous = previousWindow;
+        if (previous != null) {
+            previous.mergeInto(waits);
+        }
+        current.mergeInto(waits);
+        boolean any = waits.getCount() > 0;
+        return new QuizAdmissionStatsDto(maxConcurrent, maxQueue, active, queued, admitted.sum(), rejected.sum(),
+                any ? waits.quantile(0.5) : null, any ? waits.quantile(0.95) : null,
+                any ? waits.quantile(0.99) : null, any ? waits.quantile(1.0) : null, quizzes);
+    }
+
+    private void acquire(Gate gate) {
+        // The untimed tryAcquire() would barge past queued requests; a zero timeout honors the fair order
+        try {
+            if (gate.permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+        if (gate.waiting.incrementAndGet() > maxQueue) {
+            gate.waiting.decrementAndGet();
+            reject();
+        }
+        boolean acquired;
+        try {
+            acquired = gate.permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw interrupted();
+        } finally {
+            gate.waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            reject();
+        }
+    }
+
+    private static CustomException interrupted() {
+        Thread.currentThread().interrupt();
+        return new CustomException("Request was interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private void reject() {
+        rejected.increment();
+        throw new TooManyRequestsException("Too many requests for this quiz, please retry shortly",
+                retryAfterSeconds);
+    }
+
+    private void recordWait(double millis) {
+        admitted.increment();
+        currentWindow().record(millis);
+    }
+
+    // The current stats window, starting a new one once it is over
+    private Window currentWindow() {
+        long now = System.currentTimeMillis();
+        Window current = window;
+        if (now - current.start < statsWindowMillis) {
+            return current;
+        }
+        synchronized (rotationLock) {
+            current = window;
+            if (now - current.start >= statsWindowMillis) {
+                previousWindow = now - current.start >= 2 * statsWindowMillis ? null : current;
+                current = new Window(now);
+                window = current;
+            }
+            return current;
+        }
+    }
+}
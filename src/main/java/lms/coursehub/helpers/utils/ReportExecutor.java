@@ -0,0 +1,72 @@
+package lms.coursehub.helpers.utils;
+
+import jakarta.annotation.PreDestroy;
+import lms.coursehub.helpers.exceptions.CustomException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of virtual threads for per-topic report work. Every task runs in
+ * its own read-only transaction (and so on its own pooled connection); the pool
+ * size caps how many connections one report can hold at a time.
+ */
+@Component
+public class ReportExecutor {
+
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnlyTx;
+
+    public ReportExecutor(PlatformTransactionManager transactionManager,
+            @Value("${coursehub.reports.parallelism:4}") int parallelism) {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                Thread.ofVirtual().name("report-", 0).factory());
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Apply the task to every item concurrently; results come back in item order
+     * so callers can merge them deterministically
+     */
+    public <T, R> List<R> mapAll(List<T> items, Function<T, R> task) {
+        List<Future<R>> futures = items.stream()
+                .map(item -> executor.submit(() -> readOnlyTx.execute(status -> task.apply(item))))
+                .toList();
+
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CustomException("Report generation was interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CustomException("Report generation failed", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,37 @@
+package lms.coursehub.helpers.utils;
+
+import lms.coursehub.helpers.exceptions.CustomException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a topic listing ordered by (section position, title, id).
+ * Clients only ever see the opaque token produced by {@link #encode()}
+ */
+public record TopicCursor(int position, String title, UUID id) {
+
+    // Sorts before every topic, so it is used for the first page
+    public static final TopicCursor FIRST = new TopicCursor(Integer.MIN_VALUE, "", new UUID(0L, 0L));
+
+    public String encode() {
+        // Title goes last since it is the only component that may contain the separator
+        String raw = position + ":" + id + ":" + title;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TopicCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            return new TopicCursor(Integer.parseInt(parts[0]), parts[2], UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
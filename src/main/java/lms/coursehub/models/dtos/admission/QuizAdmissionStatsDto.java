@@ -0,0 +1,34 @@
+package lms.coursehub.models.dtos.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizAdmissionStatsDto {
+    private int maxConcurrentPerQuiz;
+    private int maxQueuePerQuiz;
+    private long activeCount; // Requests holding a permit right now, over all quizzes
+    private long queueDepth; // Requests waiting for a permit right now, over all quizzes
+    private long admittedCount;
+    private long rejectedCount;
+    private Double waitMillisP50; // Wait before admission; null when no request was admitted in the window
+    private Double waitMillisP95;
+    private Double waitMillisP99;
+    private Double waitMillisMax;
+    private List<QuizLoad> quizzes; // Quizzes with active or waiting requests
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class QuizLoad {
+        private UUID topicId;
+        private int active;
+        private int waiting;
+    }
+}
@@ -0,0 +1,20 @@
+package lms.coursehub.models.dtos.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CacheStatsDto {
+    private String name;
+    private long size;
+    private long maxSize;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate; // hits / (hits + misses), 0 when the cache was never read
+}
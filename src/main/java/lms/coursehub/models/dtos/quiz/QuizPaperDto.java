@@ -0,0 +1,49 @@
+package lms.coursehub.models.dtos.quiz;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Student-facing quiz: settings and questions without correct answers, grades
+ * or feedback
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizPaperDto {
+    private UUID topicId;
+    private String title;
+    private String description;
+    private LocalDateTime open;
+    private LocalDateTime close;
+    private Integer timeLimit;
+    private String timeLimitUnit;
+    private String attemptAllowed;
+    private List<PaperQuestion> questions;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PaperQuestion {
+        private UUID id;
+        private String questionText;
+        private String type;
+        private BigDecimal defaultMark;
+        private Boolean multiple;
+        private List<PaperChoice> choices; // Empty for True/False and Short Answer questions
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PaperChoice {
+        private UUID id;
+        private String text;
+    }
+}
@@ -33,6 +33,7 @@ public class AllAssignmentsReportDto {
     private LocalDateTime closestNextEndAssignment = null;
 
     private Map<Number, Number> markDistributionCount = new HashMap<>();
+    private MarkPercentilesDto markPercentiles; // Over the submitted marks of every topic in the report
     private List<StudentInfoWithAverageMark> studentInfoWithMarkAverage = new ArrayList<>();
     private List<StudentInfoWithAverageMark> studentWithMarkOver8 = new ArrayList<>();
     private List<StudentInfoWithAverageMark> studentWithMarkOver5 = new ArrayList<>();
@@ -28,6 +28,7 @@ public class AllQuizzesReportDto {
     private List<SingleQuizReportDto.StudentInfoAndMark> studentWithNoResponse;
 
     private Map<Number, Number> markDistributionCount;
+    private MarkPercentilesDto markPercentiles; // Over the submitted marks of every topic in the report
 
     private List<SingleQuizReportDto> singleQuizReports;
 
@@ -0,0 +1,33 @@
+package lms.coursehub.models.dtos.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseActivityReportDto {
+    private String courseId;
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDate rolledUpThrough; // Days up to here come from the daily rollups, later ones from the responses
+    private List<TopicActivity> topics; // Outline order
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TopicActivity {
+        private UUID topicId;
+        private String title;
+        private String type;
+        private long attemptCount;
+        private long submissionCount;
+        private long markCount;
+        private Double averageMark; // Base 10; null without marks
+    }
+}
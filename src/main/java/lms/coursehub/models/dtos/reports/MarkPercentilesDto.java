@@ -0,0 +1,23 @@
+package lms.coursehub.models.dtos.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mark percentiles (base 10) of the submitted marks; all null when nobody
+ * submitted
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MarkPercentilesDto {
+    private Long markCount; // Number of marks the percentiles are taken over
+    private Double p10;
+    private Double p25;
+    private Double median;
+    private Double p75;
+    private Double p90;
+    private Double iqr; // p75 - p25
+
+}
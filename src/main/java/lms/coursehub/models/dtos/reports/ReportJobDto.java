@@ -0,0 +1,23 @@
+package lms.coursehub.models.dtos.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobDto {
+    private UUID id;
+    private String courseId;
+    private String type; // quiz | assignment
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private String status; // PENDING | RUNNING | DONE | FAILED
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
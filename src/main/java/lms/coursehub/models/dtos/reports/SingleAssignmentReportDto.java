@@ -1,5 +1,8 @@
 package lms.coursehub.models.dtos.reports;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lms.coursehub.helpers.utils.MarkHistogram;
+import lms.coursehub.helpers.utils.QuantileSketch;
 import lms.coursehub.models.dtos.user.UserResponseDto;
 import lombok.Data;
 
@@ -24,7 +27,12 @@ public class SingleAssignmentReportDto {
     private List<StudentInfoAndMark> studentWithNoResponse;
 
     // Statistics
-    private Map<Integer, Long> markDistributionCount; // Keys: 8, 5, 2, 0, -1 (no response)
+    private Map<Number, Number> markDistributionCount; // Keys: bin lower edges (default 8, 5, 2, 0), -1 (no response)
+    @JsonIgnore
+    private MarkHistogram markHistogram; // Counts behind markDistributionCount, merged by course reports
+    private MarkPercentilesDto markPercentiles; // Percentiles of the submitted marks
+    @JsonIgnore
+    private QuantileSketch markSketch; // Sketch behind markPercentiles, merged by course reports
     private Long submissionCount; // Total number of submissions
     private Long gradedSubmissionCount; // Number of graded submissions
     private Integer fileCount; // Total files submitted
@@ -0,0 +1,28 @@
+package lms.coursehub.models.dtos.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeacherDashboardDto {
+    private List<CourseMetrics> courses;
+    private LocalDateTime generatedAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CourseMetrics {
+        private String courseId;
+        private String title;
+        private long studentCount;
+        private long pendingGradingCount; // Assignment responses without a mark
+        private Double averageMark; // Base 10 over quiz and assignment marks; null when there are none
+        private double completionRate; // Percentage of (student, quiz / assignment) pairs with work
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 
 @Getter
 @Setter
-public class AssignmentDataDto {
+public final class AssignmentDataDto implements TopicDataDto {
     private String description;
     private LocalDateTime open;
     private LocalDateTime close;
@@ -0,0 +1,17 @@
+package lms.coursehub.models.dtos.topic;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkCreateTopicRequest {
+    @NotEmpty(message = "At least one topic is required")
+    @Size(max = 500, message = "At most 500 topics can be imported at once")
+    private List<@Valid CreateTopicRequest> topics;
+}
@@ -5,7 +5,7 @@ import lombok.Setter;
 
 @Getter
 @Setter
-public class FileDataDto {
+public final class FileDataDto implements TopicDataDto {
     private String description;
     private CloudinaryFileDto file;
 }
\ No newline at end of file
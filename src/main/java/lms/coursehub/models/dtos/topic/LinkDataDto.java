@@ -5,7 +5,7 @@ import lombok.Setter;
 
 @Getter
 @Setter
-public class LinkDataDto {
+public final class LinkDataDto implements TopicDataDto {
     private String description;
     private String url;
 }
\ No newline at end of file
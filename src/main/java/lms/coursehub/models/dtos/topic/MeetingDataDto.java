@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 
 @Getter
 @Setter
-public class MeetingDataDto {
+public final class MeetingDataDto implements TopicDataDto {
     private String description;
     private LocalDateTime open;
     private LocalDateTime close;
@@ -5,7 +5,7 @@ import lombok.Setter;
 
 @Getter
 @Setter
-public class PageDataDto {
+public final class PageDataDto implements TopicDataDto {
     private String description;
     private String content;
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import java.util.List;
 
 @Getter
 @Setter
-public class QuizDataDto {
+public final class QuizDataDto implements TopicDataDto {
     private String description;
     private LocalDateTime open;
     private LocalDateTime close;
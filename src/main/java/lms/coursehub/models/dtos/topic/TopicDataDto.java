@@ -0,0 +1,13 @@
+package lms.coursehub.models.dtos.topic;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Type-specific payload of a topic. The concrete type is given by the topic's
+ * {@code type} field, so the payload is written as a plain nested object.
+ */
+@Schema(oneOf = { QuizDataDto.class, AssignmentDataDto.class, FileDataDto.class, LinkDataDto.class,
+        PageDataDto.class, MeetingDataDto.class })
+public sealed interface TopicDataDto
+        permits QuizDataDto, AssignmentDataDto, FileDataDto, LinkDataDto, PageDataDto, MeetingDataDto {
+}
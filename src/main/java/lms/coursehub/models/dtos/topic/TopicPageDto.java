@@ -0,0 +1,21 @@
+package lms.coursehub.models.dtos.topic;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated topic listing; {@code nextCursor} is null on
+ * the last page
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicPageDto<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package lms.coursehub.models.dtos.topic;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * v2 representation of a topic: {@code data} is a typed object instead of a
+ * JSON string, so it is serialized once, straight to the response stream
+ */
+@Getter
+@Setter
+public class TypedTopicResponseDto {
+    private UUID id;
+    private String title;
+    private String type;
+    private UUID sectionId;
+    private TopicDataDto data;
+}
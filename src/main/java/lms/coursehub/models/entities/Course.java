@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -33,6 +34,11 @@ public class Course {
     private String level;
     private boolean isPublished;
 
+    // Bumped on every content change (see CourseVersionService); never written through the entity
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long contentVersion;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     private User creator;
 
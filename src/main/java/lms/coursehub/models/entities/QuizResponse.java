@@ -17,7 +17,8 @@ import java.util.UUID;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "quiz_responses")
+@Table(name = "quiz_responses",
+        indexes = @Index(name = "idx_quiz_responses_quiz_student", columnList = "topic_quiz_id, student_id"))
 public class QuizResponse {
 
     @Id
@@ -15,7 +15,8 @@ import java.util.UUID;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "quiz_response_answers")
+@Table(name = "quiz_response_answers",
+        indexes = @Index(name = "idx_quiz_response_answers_response", columnList = "quiz_response_id"))
 public class QuizResponseAnswer {
 
     @Id
@@ -0,0 +1,45 @@
+package lms.coursehub.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.UUID;
+
+// Per-quiz report aggregates, maintained on every submission (see QuizStatsService)
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "quiz_stats")
+public class QuizStat {
+
+    @Id
+    private UUID topicQuizId;
+
+    // Grading method the student marks below were computed with
+    private String gradingMethod;
+
+    private long attemptCount;
+    private long studentCount;
+    private double markSum;
+
+    // Students per mark band: [8, 10], [5, 8), [2, 5), [0, 2)
+    private long countOver8;
+    private long countOver5;
+    private long countOver2;
+    private long countOver0;
+
+    // Attempts with both start and completion time, and their total duration
+    private long timedAttemptCount;
+    private long totalTimeSeconds;
+
+    // Incremented by every refresh / rebuild, so report results can tell that the stats changed
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeCount;
+}
@@ -0,0 +1,48 @@
+package lms.coursehub.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.util.UUID;
+
+// One student's attempts at a quiz, summarized (see QuizStatsService)
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "quiz_student_stats", uniqueConstraints = @UniqueConstraint(columnNames = { "topic_quiz_id", "student_id" }))
+public class QuizStudentStat {
+
+    @Id
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID topicQuizId;
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    private long attemptCount;
+    private double bestMark;
+    private double firstMark;
+    private double lastMark;
+    private double avgMark;
+    private long timedAttemptCount;
+    private long totalTimeSeconds;
+
+    // The student's quiz mark under the given grading method
+    public double markFor(String gradingMethod) {
+        return switch (gradingMethod != null ? gradingMethod : "Highest Grade") {
+            case "Average Grade" -> avgMark;
+            case "First Grade" -> firstMark;
+            case "Last Grade" -> lastMark;
+            default -> bestMark;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package lms.coursehub.models.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Last day a rollup table is complete for; the row is locked while the rollup is built
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "rollup_watermarks")
+public class RollupWatermark {
+
+    @Id
+    private String name;
+
+    // Null until the first rollup ran
+    private LocalDate rolledUpThrough;
+}
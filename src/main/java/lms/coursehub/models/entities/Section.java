@@ -16,7 +16,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "sections")
+@Table(name = "sections", indexes = @Index(name = "idx_sections_course_position", columnList = "course_id, position"))
 public class Section {
 
     @Id
@@ -16,7 +16,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "topics")
+@Table(name = "topics", indexes = @Index(name = "idx_topics_section_title_id", columnList = "section_id, title, id"))
 public class Topic {
 
     @Id
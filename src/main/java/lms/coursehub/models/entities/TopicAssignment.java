@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +16,10 @@ import java.util.UUID;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "topic_assignments")
+@Table(name = "topic_assignments", indexes = {
+        @Index(name = "idx_topic_assignments_open", columnList = "open"),
+        @Index(name = "idx_topic_assignments_close", columnList = "close")
+})
 public class TopicAssignment {
 
     @Id
@@ -32,6 +36,11 @@ public class TopicAssignment {
     private int maximumFile;
     private String maximumFileSize;
 
+    // Bumped on every response write (see TopicAssignmentRepo); never written through the entity
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long responseVersion;
+
     @ManyToMany(cascade = { CascadeType.PERSIST, CascadeType.MERGE })
     @JoinTable(name = "topic_assignment_files", joinColumns = @JoinColumn(name = "topic_assignment_id"), inverseJoinColumns = @JoinColumn(name = "file_id"))
     private List<CloudinaryFile> assignmentFiles = new ArrayList<>();
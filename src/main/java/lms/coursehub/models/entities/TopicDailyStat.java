@@ -0,0 +1,45 @@
+package lms.coursehub.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// One day of submissions to a quiz / assignment, rolled up from the responses (see ActivityRollupService)
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "topic_daily_stats",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "topic_id", "activity_date" }),
+        indexes = @Index(name = "idx_topic_daily_stats_course_date", columnList = "course_id, activity_date"))
+public class TopicDailyStat {
+
+    @Id
+    @UuidGenerator
+    private UUID id;
+
+    @Column(nullable = false)
+    private String courseId;
+
+    @Column(nullable = false)
+    private UUID topicId;
+
+    @Column(nullable = false)
+    private LocalDate activityDate;
+
+    // Quiz attempts / assignment responses dated that day (completion, else start / submission time)
+    private long attemptCount;
+    // Of those, completed quiz attempts and all assignment responses
+    private long submissionCount;
+
+    // Base-10 marks of completed quiz attempts and graded assignment responses
+    private long markCount;
+    private double markSum;
+}
@@ -14,7 +14,10 @@ import java.util.UUID;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "topic_meetings")
+@Table(name = "topic_meetings", indexes = {
+        @Index(name = "idx_topic_meetings_open", columnList = "open"),
+        @Index(name = "idx_topic_meetings_close", columnList = "close")
+})
 public class TopicMeeting {
 
     @Id
@@ -16,7 +16,10 @@ import java.util.UUID;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "topic_quizzes")
+@Table(name = "topic_quizzes", indexes = {
+        @Index(name = "idx_topic_quizzes_open", columnList = "open"),
+        @Index(name = "idx_topic_quizzes_close", columnList = "close")
+})
 public class TopicQuiz {
 
     @Id
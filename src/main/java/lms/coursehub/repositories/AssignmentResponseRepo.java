@@ -15,6 +15,16 @@ public interface AssignmentResponseRepo extends JpaRepository<AssignmentResponse
     @Query("SELECT ar FROM AssignmentResponse ar WHERE ar.topicAssignment.id = :topicAssignmentId")
     List<AssignmentResponse> findByTopicAssignmentId(@Param("topicAssignmentId") UUID topicAssignmentId);
 
+    // (student id, assignment id, mark) of the graded responses of a course
+    @Query("SELECT ar.student.id, ar.topicAssignment.id, ar.mark FROM AssignmentResponse ar "
+            + "WHERE ar.topicAssignment.topic.section.course.id = :courseId AND ar.mark IS NOT NULL")
+    List<Object[]> findMarksByCourseId(@Param("courseId") String courseId);
+
+    // Same, with the submitted files loaded in the same query
+    @Query("SELECT DISTINCT ar FROM AssignmentResponse ar LEFT JOIN FETCH ar.assignmentFiles "
+            + "WHERE ar.topicAssignment.id = :topicAssignmentId")
+    List<AssignmentResponse> findWithFilesByTopicAssignmentId(@Param("topicAssignmentId") UUID topicAssignmentId);
+
     // Find assignment response by topic assignment ID and student ID
     @Query("SELECT ar FROM AssignmentResponse ar WHERE ar.topicAssignment.id = :topicAssignmentId AND ar.student.id = :studentId")
     Optional<AssignmentResponse> findByTopicAssignmentIdAndStudentId(@Param("topicAssignmentId") UUID topicAssignmentId,
@@ -3,8 +3,13 @@ package lms.coursehub.repositories;
 import jakarta.validation.constraints.NotBlank;
 import lms.coursehub.models.entities.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CourseRepo extends JpaRepository<Course, String> {
@@ -13,4 +18,102 @@ public interface CourseRepo extends JpaRepository<Course, String> {
     List<Course> findByIsPublishedTrue();
 
     List<Course> findByCreatorId(UUID creatorId);
+
+    @Query("SELECT c.id FROM Course c WHERE c.creator.id = :creatorId")
+    List<String> findIdsByCreatorId(@Param("creatorId") UUID creatorId);
+
+    // Primary key lookup of the content version only, without loading the course
+    @Query("SELECT c.contentVersion FROM Course c WHERE c.id = :courseId")
+    Optional<Long> findContentVersionById(@Param("courseId") String courseId);
+
+    // (id, contentVersion) pairs, used to check per-node snapshots for staleness
+    @Query("SELECT c.id, c.contentVersion FROM Course c WHERE c.id IN :courseIds")
+    List<Object[]> findContentVersionsByIdIn(@Param("courseIds") List<String> courseIds);
+
+    @Query("SELECT c.id, c.contentVersion FROM Course c")
+    List<Object[]> findAllContentVersions();
+
+    /**
+     * One student's work in a course over the quizzes / assignments open during
+     * (start, end): (title, quizzes, quizzes attempted, average quiz mark by
+     * grading method, assignments, assignments submitted, submitted after close).
+     * Quiz work comes from quiz_student_stats, which QuizStatsService.backfill
+     * builds for every quiz at startup. Empty when the course does not exist.
+     */
+    @Query("SELECT c.title, "
+            + "(SELECT COUNT(q) FROM TopicQuiz q WHERE q.topic.section.course = c "
+            + "AND (q.open IS NULL OR q.open < :end) AND (q.close IS NULL OR q.close > :start)), "
+            + "(SELECT COUNT(s) FROM QuizStudentStat s, TopicQuiz q WHERE q.id = s.topicQuizId "
+            + "AND s.studentId = :studentId AND q.topic.section.course = c "
+            + "AND (q.open IS NULL OR q.open < :end) AND (q.close IS NULL OR q.close > :start)), "
+            + "(SELECT AVG(CASE q.gradingMethod WHEN 'Average Grade' THEN s.avgMark "
+            + "WHEN 'First Grade' THEN s.firstMark WHEN 'Last Grade' THEN s.lastMark ELSE s.bestMark END) "
+            + "FROM QuizStudentStat s, TopicQuiz q WHERE q.id = s.topicQuizId "
+            + "AND s.studentId = :studentId AND q.topic.section.course = c "
+            + "AND (q.open IS NULL OR q.open < :end) AND (q.close IS NULL OR q.close > :start)), "
+            + "(SELECT COUNT(a) FROM TopicAssignment a WHERE a.topic.section.course = c "
+            + "AND (a.open IS NULL OR a.open < :end) AND (a.close IS NULL OR a.close > :start)), "
+            + "(SELECT COUNT(ar) FROM AssignmentResponse ar JOIN ar.topicAssignment a "
+            + "WHERE ar.student.id = :studentId AND a.topic.section.course = c "
+            + "AND (a.open IS NULL OR a.open < :end) AND (a.close IS NULL OR a.close > :start)), "
+            + "(SELECT COUNT(ar) FROM AssignmentResponse ar JOIN ar.topicAssignment a "
+            + "WHERE ar.student.id = :studentId AND a.topic.section.course = c "
+            + "AND (a.open IS NULL OR a.open < :end) AND (a.close IS NULL OR a.close > :start) "
+            + "AND a.close IS NOT NULL AND ar.submittedAt > a.close) "
+            + "FROM Course c WHERE c.id = :courseId")
+    List<Object[]> summarizeStudentWork(@Param("courseId") String courseId, @Param("studentId") UUID studentId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Headline metrics of every course of a teacher. Work (quiz stats, assignment responses) counts
+    // only for enrolled students; completion is work done over enrolled students x graded topics
+    String CREATOR_METRICS_SQL = "WITH c AS (SELECT id, title FROM courses WHERE creator_id = :creatorId),"
+            + " e AS (SELECT ed.course_id, ed.student_id FROM enrollment_details ed JOIN c ON c.id = ed.course_id),"
+            + " enrolled AS (SELECT course_id, COUNT(*) AS student_count FROM e GROUP BY course_id),"
+            + " items AS (SELECT s.course_id, COUNT(*) AS item_count FROM topics t"
+            + " JOIN sections s ON s.id = t.section_id JOIN c ON c.id = s.course_id"
+            + " WHERE LOWER(t.type) IN ('quiz', 'assignment') GROUP BY s.course_id),"
+            + " work AS ("
+            + " SELECT s.course_id, qs.student_id, FALSE AS pending,"
+            + " CASE q.grading_method WHEN 'Average Grade' THEN qs.avg_mark WHEN 'First Grade' THEN qs.first_mark"
+            + " WHEN 'Last Grade' THEN qs.last_mark ELSE qs.best_mark END AS mark"
+            + " FROM quiz_student_stats qs JOIN topic_quizzes q ON q.id = qs.topic_quiz_id"
+            + " JOIN topics t ON t.id = q.id JOIN sections s ON s.id = t.section_id JOIN c ON c.id = s.course_id"
+            + " UNION ALL"
+            + " SELECT s.course_id, ar.student_id, ar.mark IS NULL, CAST(ar.mark / 10.0 AS double precision)"
+            + " FROM assignment_responses ar JOIN topics t ON t.id = ar.topic_assignment_id"
+            + " JOIN sections s ON s.id = t.section_id JOIN c ON c.id = s.course_id),"
+            + " done AS (SELECT w.course_id, COUNT(*) AS done_count, COUNT(*) FILTER (WHERE w.pending) AS pending_count,"
+            + " AVG(w.mark) AS avg_mark FROM work w"
+            + " JOIN e ON e.course_id = w.course_id AND e.student_id = w.student_id GROUP BY w.course_id)"
+            + " SELECT c.id AS \"courseId\", c.title AS \"title\","
+            + " COALESCE(en.student_count, 0) AS \"studentCount\","
+            + " COALESCE(d.pending_count, 0) AS \"pendingGradingCount\","
+            + " CAST(d.avg_mark AS double precision) AS \"averageMark\","
+            + " CAST(CASE WHEN COALESCE(en.student_count, 0) * COALESCE(i.item_count, 0) = 0 THEN 0"
+            + " ELSE 100.0 * COALESCE(d.done_count, 0) / (en.student_count * i.item_count) END AS double precision)"
+            + " AS \"completionRate\""
+            + " FROM c LEFT JOIN enrolled en ON en.course_id = c.id LEFT JOIN items i ON i.course_id = c.id"
+            + " LEFT JOIN done d ON d.course_id = c.id"
+            + " ORDER BY c.title, c.id";
+
+    interface CourseMetricsRow {
+        String getCourseId();
+
+        String getTitle();
+
+        Long getStudentCount();
+
+        Long getPendingGradingCount();
+
+        Double getAverageMark();
+
+        Double getCompletionRate();
+    }
+
+    @Query(value = CREATOR_METRICS_SQL, nativeQuery = true)
+    List<CourseMetricsRow> findMetricsByCreatorId(@Param("creatorId") UUID creatorId);
+
+    @Modifying
+    @Query("UPDATE Course c SET c.contentVersion = c.contentVersion + 1 WHERE c.id = :courseId")
+    int incrementContentVersion(@Param("courseId") String courseId);
 }
@@ -19,6 +19,13 @@ public interface EnrollmentDetailRepo extends JpaRepository<EnrollmentDetail, UU
 
     List<EnrollmentDetail> findByStudentId(UUID studentId);
 
+    // Id-only projections backing MembershipCache
+    @Query("SELECT e.course.id FROM EnrollmentDetail e WHERE e.student.id = :studentId")
+    List<String> findCourseIdsByStudentId(@Param("studentId") UUID studentId);
+
+    @Query("SELECT e.student.id, e.joinDate FROM EnrollmentDetail e WHERE e.course.id = :courseId")
+    List<Object[]> findStudentIdsAndJoinDatesByCourseId(@Param("courseId") String courseId);
+
     // For calculating student counts who enrolled before a specific date (e.g.,
     // topic close date)
     @Query("SELECT COUNT(e) FROM EnrollmentDetail e WHERE e.course.id = :courseId AND e.joinDate <= :beforeDate")
@@ -2,7 +2,16 @@ package lms.coursehub.repositories;
 
 import lms.coursehub.models.entities.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.UUID;
 
 public interface QuestionRepo extends JpaRepository<Question, UUID> {
+
+    // Questions of a quiz with their choices, in one query (for compiling answer keys)
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.questionChoices "
+            + "WHERE q IN (SELECT qs FROM TopicQuiz tq JOIN tq.questions qs WHERE tq.id = :topicQuizId)")
+    List<Question> findWithChoicesByTopicQuizId(@Param("topicQuizId") UUID topicQuizId);
 }
@@ -2,7 +2,22 @@ package lms.coursehub.repositories;
 
 import lms.coursehub.models.entities.QuizResponseAnswer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface QuizResponseAnswerRepo extends JpaRepository<QuizResponseAnswer, UUID> {
+
+    @Query("SELECT a FROM QuizResponseAnswer a WHERE a.quizResponse.id = :quizResponseId")
+    List<QuizResponseAnswer> findByQuizResponseId(@Param("quizResponseId") UUID quizResponseId);
+
+    // Drop the stored answers to the given questions before writing newer ones
+    @Modifying
+    @Query("DELETE FROM QuizResponseAnswer a WHERE a.quizResponse.id = :quizResponseId AND a.question IN :questions")
+    int deleteByQuizResponseIdAndQuestionIn(@Param("quizResponseId") UUID quizResponseId,
+            @Param("questions") Collection<String> questions);
 }
@@ -1,13 +1,17 @@
 package lms.coursehub.repositories;
 
 import lms.coursehub.models.entities.QuizResponse;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import lms.coursehub.models.entities.TopicQuiz;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -22,4 +26,64 @@ public interface QuizResponseRepo extends JpaRepository<QuizResponse, UUID> {
     @Query("SELECT qr FROM QuizResponse qr WHERE qr.topicQuiz.id = :topicQuizId AND qr.student.id = :studentId")
     List<QuizResponse> findByTopicQuizIdAndStudentId(@Param("topicQuizId") UUID topicQuizId,
             @Param("studentId") UUID studentId);
+
+    // (topic quiz id, student email, status) of an attempt, without loading it
+    @Query("SELECT r.topicQuiz.id, r.student.email, r.status FROM QuizResponse r WHERE r.id = :id")
+    List<Object[]> findAttemptInfoById(@Param("id") UUID id);
+
+    // Locked so autosave flushes and the final submit of an attempt write one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM QuizResponse r WHERE r.id = :id")
+    Optional<QuizResponse> findForUpdate(@Param("id") UUID id);
+
+    // Same for many attempts, locked in id order so concurrent flushes cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM QuizResponse r WHERE r.id IN :ids ORDER BY r.id")
+    List<QuizResponse> findAllForUpdate(@Param("ids") Collection<UUID> ids);
+
+    // ===== Quiz statistics (computed in the database) =====
+
+    // Per-student summary of a quiz's submitted attempts (attempts still in progress are left out
+    // until submitted): an attempt's mark is the sum of its answer marks; attempts are ordered by
+    // start time for the first/last mark
+    String STUDENT_STATS_SQL = "WITH attempt AS ("
+            + " SELECT r.id, r.student_id, r.started_at, r.completed_at, COALESCE(SUM(a.mark), 0) AS mark,"
+            + " ROW_NUMBER() OVER (PARTITION BY r.student_id ORDER BY r.started_at ASC NULLS LAST, r.id ASC) AS first_rank,"
+            + " ROW_NUMBER() OVER (PARTITION BY r.student_id ORDER BY r.started_at DESC NULLS LAST, r.id DESC) AS last_rank"
+            + " FROM quiz_responses r LEFT JOIN quiz_response_answers a ON a.quiz_response_id = r.id"
+            + " WHERE r.topic_quiz_id = :topicQuizId AND (CAST(:studentId AS uuid) IS NULL OR r.student_id = :studentId)"
+            + " AND (r.status IS NULL OR r.status <> 'IN_PROGRESS')"
+            + " GROUP BY r.id, r.student_id, r.started_at, r.completed_at)"
+            + " SELECT student_id AS \"studentId\", COUNT(*) AS \"attemptCount\","
+            + " CAST(MAX(mark) AS double precision) AS \"bestMark\","
+            + " CAST(MAX(mark) FILTER (WHERE first_rank = 1) AS double precision) AS \"firstMark\","
+            + " CAST(MAX(mark) FILTER (WHERE last_rank = 1) AS double precision) AS \"lastMark\","
+            + " CAST(AVG(mark) AS double precision) AS \"avgMark\","
+            + " COUNT(*) FILTER (WHERE started_at IS NOT NULL AND completed_at IS NOT NULL) AS \"timedAttemptCount\","
+            + " CAST(COALESCE(SUM(FLOOR(EXTRACT(EPOCH FROM completed_at - started_at)))"
+            + " FILTER (WHERE started_at IS NOT NULL AND completed_at IS NOT NULL), 0) AS bigint) AS \"totalTimeSeconds\""
+            + " FROM attempt GROUP BY student_id";
+
+    interface StudentStatRow {
+        UUID getStudentId();
+
+        Long getAttemptCount();
+
+        Double getBestMark();
+
+        Double getFirstMark();
+
+        Double getLastMark();
+
+        Double getAvgMark();
+
+        Long getTimedAttemptCount();
+
+        Long getTotalTimeSeconds();
+    }
+
+    // A null studentId summarizes every student of the quiz
+    @Query(value = STUDENT_STATS_SQL, nativeQuery = true)
+    List<StudentStatRow> summarizeAttempts(@Param("topicQuizId") UUID topicQuizId,
+            @Param("studentId") UUID studentId);
 }
@@ -0,0 +1,49 @@
+package lms.coursehub.repositories;
+
+import jakarta.persistence.LockModeType;
+import lms.coursehub.models.entities.QuizStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface QuizStatRepo extends JpaRepository<QuizStat, UUID> {
+
+    // Create an empty (never built) stats row if missing; safe when several transactions do it at once
+    @Modifying
+    @Query(value = "INSERT INTO quiz_stats (topic_quiz_id, attempt_count, student_count, mark_sum, count_over8, "
+            + "count_over5, count_over2, count_over0, timed_attempt_count, total_time_seconds) "
+            + "VALUES (:topicQuizId, 0, 0, 0, 0, 0, 0, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void ensureExists(@Param("topicQuizId") UUID topicQuizId);
+
+    // Locked for the rest of the transaction: stats of one quiz are refreshed / rebuilt one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM QuizStat s WHERE s.topicQuizId = :topicQuizId")
+    Optional<QuizStat> findForUpdate(@Param("topicQuizId") UUID topicQuizId);
+
+    // Atomic in-place delta, so concurrent submissions never overwrite each other
+    @Modifying
+    @Query("UPDATE QuizStat s SET s.attemptCount = s.attemptCount + :attempts, "
+            + "s.studentCount = s.studentCount + :students, s.markSum = s.markSum + :markSum, "
+            + "s.countOver8 = s.countOver8 + :over8, s.countOver5 = s.countOver5 + :over5, "
+            + "s.countOver2 = s.countOver2 + :over2, s.countOver0 = s.countOver0 + :over0, "
+            + "s.timedAttemptCount = s.timedAttemptCount + :timedAttempts, "
+            + "s.totalTimeSeconds = s.totalTimeSeconds + :timeSeconds, "
+            + "s.changeCount = s.changeCount + 1 "
+            + "WHERE s.topicQuizId = :topicQuizId")
+    int applyDelta(@Param("topicQuizId") UUID topicQuizId,
+            @Param("attempts") long attempts, @Param("students") long students, @Param("markSum") double markSum,
+            @Param("over8") long over8, @Param("over5") long over5, @Param("over2") long over2,
+            @Param("over0") long over0, @Param("timedAttempts") long timedAttempts,
+            @Param("timeSeconds") long timeSeconds);
+
+    // (quiz rows, change count) over a course's quizzes; the count grows with every refresh
+    @Query("SELECT COUNT(s), COALESCE(SUM(s.changeCount), 0) "
+            + "FROM QuizStat s, TopicQuiz q WHERE q.id = s.topicQuizId AND q.topic.section.course.id = :courseId")
+    List<Object[]> summarizeByCourseId(@Param("courseId") String courseId);
+}
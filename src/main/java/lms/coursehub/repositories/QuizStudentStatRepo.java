@@ -0,0 +1,33 @@
+package lms.coursehub.repositories;
+
+import jakarta.persistence.LockModeType;
+import lms.coursehub.models.entities.QuizStudentStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface QuizStudentStatRepo extends JpaRepository<QuizStudentStat, UUID> {
+
+    List<QuizStudentStat> findByTopicQuizId(UUID topicQuizId);
+
+    // (student stat, grading method of its quiz) for every quiz of a course
+    @Query("SELECT s, q.gradingMethod FROM QuizStudentStat s, TopicQuiz q "
+            + "WHERE q.id = s.topicQuizId AND q.topic.section.course.id = :courseId")
+    List<Object[]> findWithGradingMethodByCourseId(@Param("courseId") String courseId);
+
+    // Read under the quiz's stats row lock (QuizStatRepo.findForUpdate)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM QuizStudentStat s WHERE s.topicQuizId = :topicQuizId AND s.studentId = :studentId")
+    Optional<QuizStudentStat> findForUpdate(@Param("topicQuizId") UUID topicQuizId,
+            @Param("studentId") UUID studentId);
+
+    @Modifying
+    @Query("DELETE FROM QuizStudentStat s WHERE s.topicQuizId = :topicQuizId")
+    void deleteByTopicQuizId(@Param("topicQuizId") UUID topicQuizId);
+}
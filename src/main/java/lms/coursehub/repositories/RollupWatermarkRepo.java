@@ -0,0 +1,24 @@
+package lms.coursehub.repositories;
+
+import jakarta.persistence.LockModeType;
+import lms.coursehub.models.entities.RollupWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RollupWatermarkRepo extends JpaRepository<RollupWatermark, String> {
+
+    // Create the watermark row if missing; safe when several nodes do it at once
+    @Modifying
+    @Query(value = "INSERT INTO rollup_watermarks (name) VALUES (:name) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void ensureExists(@Param("name") String name);
+
+    // Locked so only one node builds a rollup at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM RollupWatermark w WHERE w.name = :name")
+    Optional<RollupWatermark> findForUpdate(@Param("name") String name);
+}
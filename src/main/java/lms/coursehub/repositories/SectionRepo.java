@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +15,7 @@ public interface SectionRepo extends JpaRepository<Section, UUID> {
 
     @Query("SELECT s FROM Section s JOIN FETCH s.course WHERE s.id = :id")
     Optional<Section> findByIdWithCourse(@Param("id") UUID id);
+
+    @Query("SELECT s FROM Section s JOIN FETCH s.course WHERE s.id IN :ids")
+    List<Section> findAllWithCourseByIdIn(@Param("ids") Collection<UUID> ids);
 }
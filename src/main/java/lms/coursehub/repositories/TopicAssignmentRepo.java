@@ -2,7 +2,32 @@ package lms.coursehub.repositories;
 
 import lms.coursehub.models.entities.TopicAssignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface TopicAssignmentRepo extends JpaRepository<TopicAssignment, UUID> {
+
+    // Bulk load assignments together with their attached files (single IN query)
+    @Query("SELECT DISTINCT a FROM TopicAssignment a LEFT JOIN FETCH a.assignmentFiles WHERE a.id IN :ids")
+    List<TopicAssignment> findAllWithFilesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Assignments of a course with their topic, in outline order
+    @Query("SELECT a FROM TopicAssignment a JOIN FETCH a.topic t JOIN t.section s "
+            + "WHERE s.course.id = :courseId ORDER BY s.position, t.title, t.id")
+    List<TopicAssignment> findAllByCourseId(@Param("courseId") String courseId);
+
+    // Record a response write (submit, edit, withdrawal) of the assignment
+    @Modifying
+    @Query("UPDATE TopicAssignment a SET a.responseVersion = a.responseVersion + 1 WHERE a.id = :id")
+    int incrementResponseVersion(@Param("id") UUID id);
+
+    // (assignments, response version sum) over a course; the sum grows with every response write
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.responseVersion), 0) FROM TopicAssignment a "
+            + "WHERE a.topic.section.course.id = :courseId")
+    List<Object[]> summarizeResponseVersionsByCourseId(@Param("courseId") String courseId);
 }
@@ -0,0 +1,79 @@
+package lms.coursehub.repositories;
+
+import lms.coursehub.models.entities.TopicDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface TopicDailyStatRepo extends JpaRepository<TopicDailyStat, UUID> {
+
+    // Per (course, topic, day) activity of the responses dated in [from, to): a quiz attempt is dated
+    // by its start, so it never moves to another day, and marked with the sum of its answer marks once
+    // completed; an assignment response is dated by its submission and marked with mark / 10. A null
+    // courseId covers every course.
+    String DAILY_ACTIVITY_SQL = "WITH attempt AS ("
+            + " SELECT s.course_id, r.topic_quiz_id AS topic_id,"
+            + " CAST(r.started_at AS date) AS activity_date,"
+            + " r.completed_at IS NOT NULL AS submitted,"
+            + " CASE WHEN r.completed_at IS NOT NULL THEN CAST(COALESCE(SUM(a.mark), 0) AS double precision) END AS mark"
+            + " FROM quiz_responses r LEFT JOIN quiz_response_answers a ON a.quiz_response_id = r.id"
+            + " JOIN topics t ON t.id = r.topic_quiz_id JOIN sections s ON s.id = t.section_id"
+            + " WHERE r.started_at >= :from AND r.started_at < :to"
+            + " AND (CAST(:courseId AS varchar) IS NULL OR s.course_id = :courseId)"
+            + " GROUP BY s.course_id, r.id"
+            + " UNION ALL"
+            + " SELECT s.course_id, ar.topic_assignment_id, CAST(ar.submitted_at AS date), TRUE,"
+            + " CAST(ar.mark / 10.0 AS double precision)"
+            + " FROM assignment_responses ar JOIN topics t ON t.id = ar.topic_assignment_id"
+            + " JOIN sections s ON s.id = t.section_id"
+            + " WHERE ar.submitted_at >= :from AND ar.submitted_at < :to"
+            + " AND (CAST(:courseId AS varchar) IS NULL OR s.course_id = :courseId))"
+            + " SELECT course_id AS \"courseId\", topic_id AS \"topicId\", activity_date AS \"activityDate\","
+            + " COUNT(*) AS \"attemptCount\", COUNT(*) FILTER (WHERE submitted) AS \"submissionCount\","
+            + " COUNT(mark) AS \"markCount\", CAST(COALESCE(SUM(mark), 0) AS double precision) AS \"markSum\""
+            + " FROM attempt GROUP BY course_id, topic_id, activity_date";
+
+    interface ActivityRow {
+        UUID getTopicId();
+
+        Long getAttemptCount();
+
+        Long getSubmissionCount();
+
+        Long getMarkCount();
+
+        Double getMarkSum();
+    }
+
+    // Raw activity of one course, for days not rolled up yet
+    @Query(value = DAILY_ACTIVITY_SQL, nativeQuery = true)
+    List<ActivityRow> summarizeActivity(@Param("courseId") String courseId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Roll up the activity of every course in [from, to) in one statement
+    @Modifying
+    @Query(value = "INSERT INTO topic_daily_stats"
+            + " (id, course_id, topic_id, activity_date, attempt_count, submission_count, mark_count, mark_sum)"
+            + " SELECT gen_random_uuid(), d.\"courseId\", d.\"topicId\", d.\"activityDate\", d.\"attemptCount\","
+            + " d.\"submissionCount\", d.\"markCount\", d.\"markSum\" FROM (" + DAILY_ACTIVITY_SQL + ") d",
+            nativeQuery = true)
+    int insertActivity(@Param("courseId") String courseId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM TopicDailyStat d WHERE d.activityDate >= :fromDate AND d.activityDate <= :toDate")
+    int deleteByActivityDateBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    // (topic id, attempts, submissions, mark count, mark sum) of a course over [fromDate, toDate]
+    @Query("SELECT d.topicId, SUM(d.attemptCount), SUM(d.submissionCount), SUM(d.markCount), SUM(d.markSum) "
+            + "FROM TopicDailyStat d WHERE d.courseId = :courseId "
+            + "AND d.activityDate >= :fromDate AND d.activityDate <= :toDate GROUP BY d.topicId")
+    List<Object[]> sumByCourseId(@Param("courseId") String courseId, @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+}
@@ -2,7 +2,16 @@ package lms.coursehub.repositories;
 
 import lms.coursehub.models.entities.TopicFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface TopicFileRepo extends JpaRepository<TopicFile, UUID> {
+
+    // Bulk load topic files together with their cloudinary file (single IN query)
+    @Query("SELECT f FROM TopicFile f LEFT JOIN FETCH f.file WHERE f.id IN :ids")
+    List<TopicFile> findAllWithFileByIdIn(@Param("ids") Collection<UUID> ids);
 }
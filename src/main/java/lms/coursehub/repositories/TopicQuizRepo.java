@@ -2,7 +2,46 @@ package lms.coursehub.repositories;
 
 import lms.coursehub.models.entities.TopicQuiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TopicQuizRepo extends JpaRepository<TopicQuiz, UUID> {
+
+    // Bulk load quizzes together with their questions (single IN query)
+    @Query("SELECT DISTINCT q FROM TopicQuiz q LEFT JOIN FETCH q.questions WHERE q.id IN :ids")
+    List<TopicQuiz> findAllWithQuestionsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Quizzes of a course with their topic and questions, in outline order (no DISTINCT:
+    // Postgres rejects it with ORDER BY on unselected columns; Hibernate dedups roots itself)
+    @Query("SELECT q FROM TopicQuiz q JOIN FETCH q.topic t JOIN t.section s LEFT JOIN FETCH q.questions "
+            + "WHERE s.course.id = :courseId ORDER BY s.position, t.title, t.id")
+    List<TopicQuiz> findAllWithQuestionsByCourseId(@Param("courseId") String courseId);
+
+    // (id, gradingMethod) of the quizzes whose stats were never built
+    @Query("SELECT q.id, q.gradingMethod FROM TopicQuiz q WHERE NOT EXISTS "
+            + "(SELECT 1 FROM QuizStat s WHERE s.topicQuizId = q.id AND s.gradingMethod IS NOT NULL)")
+    List<Object[]> findGradingMethodsWithoutStats();
+
+    // (id, gradingMethod) of every quiz
+    @Query("SELECT q.id, q.gradingMethod FROM TopicQuiz q")
+    List<Object[]> findAllGradingMethods();
+
+    // Courses whose quizzes use the given question
+    @Query("SELECT DISTINCT s.course.id FROM TopicQuiz q JOIN q.questions qs JOIN q.topic t JOIN t.section s WHERE qs.id = :questionId")
+    List<String> findCourseIdsByQuestionId(@Param("questionId") UUID questionId);
+
+    // A quiz with its topic, section and course (for rendering the quiz paper)
+    @Query("SELECT q FROM TopicQuiz q JOIN FETCH q.topic t JOIN FETCH t.section s JOIN FETCH s.course WHERE q.id = :id")
+    Optional<TopicQuiz> findWithTopicById(@Param("id") UUID id);
+
+    // (quiz id, course id, course content version) of quizzes opening in (from, to]
+    @Query("SELECT q.id, c.id, c.contentVersion FROM TopicQuiz q JOIN q.topic t JOIN t.section s JOIN s.course c "
+            + "WHERE q.open > :from AND q.open <= :to")
+    List<Object[]> findOpeningBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -1,16 +1,22 @@
 package lms.coursehub.repositories;
 
+import lms.coursehub.models.dtos.user.UserWorkResponseDto;
 import lms.coursehub.models.entities.Topic;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface TopicRepo extends JpaRepository<Topic, UUID> {
 
-        List<Topic> findBySectionIdOrderByTitle(UUID sectionId);
+        // Listing queries fetch the inverse one-to-one sides so hydrating a page of
+        // topics does not fall back to one select per topic
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment WHERE s.id = :sectionId ORDER BY t.title ASC")
+        List<Topic> findBySectionIdOrderByTitle(@Param("sectionId") UUID sectionId);
 
         @Query("SELECT t FROM Topic t JOIN t.section s ORDER BY s.position ASC, t.title ASC")
         List<Topic> findAllOrderBySectionPositionAscTitle();
@@ -19,25 +25,96 @@ public interface TopicRepo extends JpaRepository<Topic, UUID> {
 
         List<Topic> findByTypeInOrderByTitle(List<String> types);
 
-        @Query("SELECT t FROM Topic t JOIN t.section s WHERE s.course.id = :courseId ORDER BY s.position ASC, t.title ASC")
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment WHERE s.course.id = :courseId ORDER BY s.position ASC, t.title ASC")
         List<Topic> findBySectionCourseIdOrderBySectionPositionAscTitle(@Param("courseId") String courseId);
 
         List<Topic> findBySectionCourseId(String courseId);
 
-        @Query("SELECT t FROM Topic t JOIN t.section s WHERE s.course.id = :courseId AND t.type = :type ORDER BY t.title ASC")
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment WHERE s.course.id = :courseId AND t.type = :type ORDER BY t.title ASC")
         List<Topic> findBySectionCourseIdAndTypeOrderByTitle(@Param("courseId") String courseId,
                         @Param("type") String type);
 
-        @Query("SELECT t FROM Topic t JOIN t.section s WHERE s.course.id = :courseId AND t.type IN :types ORDER BY t.title ASC")
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment WHERE s.course.id = :courseId AND t.type IN :types ORDER BY t.title ASC")
         List<Topic> findBySectionCourseIdAndTypeInOrderByTitle(@Param("courseId") String courseId,
                         @Param("types") List<String> types);
 
-        @Query("SELECT t FROM Topic t JOIN t.section s WHERE s.course.id IN :courseIds AND t.type = :type ORDER BY t.title ASC")
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment WHERE s.course.id IN :courseIds AND t.type = :type ORDER BY t.title ASC")
         List<Topic> findBySectionCourseIdInAndTypeOrderByTitle(@Param("courseIds") List<String> courseIds,
                         @Param("type") String type);
 
-        @Query("SELECT DISTINCT s.course.id FROM Topic t JOIN t.section s JOIN s.course c JOIN c.enrollmentDetails e WHERE e.student.id = :userId")
-        List<String> findEnrolledCourseIdsByUserId(@Param("userId") UUID userId);
+        // Keyset pages ordered by (section position, title, id), sought one section at a time so
+        // both steps are index range scans: the rest of the cursor's section on
+        // topics(section_id, title, id), then the following sections in position order on
+        // sections(course_id, position). The redundant title bound lets the first step start
+        // its scan at the cursor instead of filtering the whole section
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment "
+                        + "WHERE s.course.id = :courseId AND s.position = :position "
+                        + "AND t.title >= :title AND (t.title > :title OR t.id > :id) "
+                        + "ORDER BY t.title ASC, t.id ASC")
+        List<Topic> findPageInSectionOfCourse(@Param("courseId") String courseId,
+                        @Param("position") int position, @Param("title") String title, @Param("id") UUID id,
+                        Limit limit);
+
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment "
+                        + "WHERE s.course.id = :courseId AND s.position > :position "
+                        + "ORDER BY s.position ASC, t.title ASC, t.id ASC")
+        List<Topic> findPageAfterSectionOfCourse(@Param("courseId") String courseId,
+                        @Param("position") int position, Limit limit);
+
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment "
+                        + "WHERE s.course.id IN :courseIds AND t.type = :type AND s.position = :position "
+                        + "AND t.title >= :title AND (t.title > :title OR t.id > :id) "
+                        + "ORDER BY t.title ASC, t.id ASC")
+        List<Topic> findPageInSectionOfCoursesAndType(@Param("courseIds") List<String> courseIds,
+                        @Param("type") String type,
+                        @Param("position") int position, @Param("title") String title, @Param("id") UUID id,
+                        Limit limit);
+
+        @Query("SELECT t FROM Topic t JOIN FETCH t.section s LEFT JOIN FETCH t.topicQuiz LEFT JOIN FETCH t.topicAssignment "
+                        + "WHERE s.course.id IN :courseIds AND t.type = :type AND s.position > :position "
+                        + "ORDER BY s.position ASC, t.title ASC, t.id ASC")
+        List<Topic> findPageAfterSectionOfCoursesAndType(@Param("courseIds") List<String> courseIds,
+                        @Param("type") String type, @Param("position") int position, Limit limit);
+
+        // Work calendar: quizzes, assignments and meetings of the given courses projected
+        // straight into the DTO. A dated topic matches when its open..close period overlaps
+        // the window; without a window undated topics are included too
+        @Query("SELECT new lms.coursehub.models.dtos.user.UserWorkResponseDto(t.id, t.title, t.type, c.id, c.title, "
+                        + "COALESCE(q.open, a.open, m.open), COALESCE(q.close, a.close, m.close), s.title) "
+                        + "FROM Topic t JOIN t.section s JOIN s.course c "
+                        + "LEFT JOIN TopicQuiz q ON q.id = t.id "
+                        + "LEFT JOIN TopicAssignment a ON a.id = t.id "
+                        + "LEFT JOIN TopicMeeting m ON m.id = t.id "
+                        + "WHERE c.id IN :courseIds AND LOWER(t.type) IN :types "
+                        + "AND ((:start IS NULL AND :end IS NULL) OR COALESCE(q.open, a.open, m.open) IS NOT NULL) "
+                        + "AND (:start IS NULL OR COALESCE(q.close, a.close, m.close, q.open, a.open, m.open) >= :start) "
+                        + "AND (:end IS NULL OR COALESCE(q.open, a.open, m.open) <= :end) "
+                        + "ORDER BY COALESCE(q.open, a.open, m.open) ASC NULLS LAST, t.title ASC")
+        List<UserWorkResponseDto> findUserWork(@Param("courseIds") List<String> courseIds,
+                        @Param("types") List<String> types,
+                        @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+        // Every work item in the system, for warming the work calendar index
+        @Query("SELECT new lms.coursehub.models.dtos.user.UserWorkResponseDto(t.id, t.title, t.type, c.id, c.title, "
+                        + "COALESCE(q.open, a.open, m.open), COALESCE(q.close, a.close, m.close), s.title) "
+                        + "FROM Topic t JOIN t.section s JOIN s.course c "
+                        + "LEFT JOIN TopicQuiz q ON q.id = t.id "
+                        + "LEFT JOIN TopicAssignment a ON a.id = t.id "
+                        + "LEFT JOIN TopicMeeting m ON m.id = t.id "
+                        + "WHERE LOWER(t.type) IN :types")
+        List<UserWorkResponseDto> findAllWork(@Param("types") List<String> types);
+
+        // (topic id, type, close, title) of the quizzes and assignments of a course, in outline order
+        @Query("SELECT t.id, t.type, COALESCE(q.close, a.close), t.title FROM Topic t JOIN t.section s "
+                        + "LEFT JOIN TopicQuiz q ON q.id = t.id "
+                        + "LEFT JOIN TopicAssignment a ON a.id = t.id "
+                        + "WHERE s.course.id = :courseId AND LOWER(t.type) IN ('quiz', 'assignment') "
+                        + "ORDER BY s.position ASC, t.title ASC, t.id ASC")
+        List<Object[]> findGradedColumnsByCourseId(@Param("courseId") String courseId);
+
+        // (topic id, course id) of every topic in the courses a teacher created
+        @Query("SELECT t.id, c.id FROM Topic t JOIN t.section s JOIN s.course c WHERE c.creator.id = :creatorId")
+        List<Object[]> findIdsAndCourseIdsByCreatorId(@Param("creatorId") UUID creatorId);
 
         @Query("SELECT t FROM Topic t JOIN FETCH t.section s JOIN FETCH s.course WHERE t.id = :id")
         java.util.Optional<Topic> findByIdWithSectionAndCourse(@Param("id") UUID id);
@@ -0,0 +1,145 @@
+package lms.coursehub.services;
+
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.models.dtos.reports.CourseActivityReportDto;
+import lms.coursehub.models.entities.Course;
+import lms.coursehub.models.entities.RollupWatermark;
+import lms.coursehub.models.entities.User;
+import lms.coursehub.repositories.CourseRepo;
+import lms.coursehub.repositories.RollupWatermarkRepo;
+import lms.coursehub.repositories.TopicDailyStatRepo;
+import lms.coursehub.repositories.TopicRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Daily rollups of quiz / assignment activity (attempts, submissions, marks)
+ * per topic. A scheduled job rolls up every finished day after the watermark;
+ * date-ranged activity reports sum the rollups and read the responses only for
+ * days not rolled up yet (normally just today).
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityRollupService {
+
+    private static final String WATERMARK = "topic_daily_stats";
+    // Start of an open-ended range
+    private static final LocalDate FIRST_DAY = LocalDate.of(1970, 1, 1);
+
+    private final TopicDailyStatRepo topicDailyStatRepo;
+    private final RollupWatermarkRepo rollupWatermarkRepo;
+    private final CourseRepo courseRepo;
+    private final TopicRepo topicRepo;
+    private final UserService userService;
+
+    // Already rolled-up days rebuilt on every run, for late completions and grading
+    @Value("${coursehub.rollups.restate-days:2}")
+    private int restateDays;
+
+    private static final class Activity {
+        long attempts;
+        long submissions;
+        long markCount;
+        double markSum;
+    }
+
+    /**
+     * Roll up every finished day since the watermark (and restate the last
+     * few), then move the watermark to yesterday
+     */
+    @Scheduled(cron = "${coursehub.rollups.cron:0 10 0 * * *}")
+    @Transactional
+    public void rollUp() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        rollupWatermarkRepo.ensureExists(WATERMARK);
+        RollupWatermark watermark = rollupWatermarkRepo.findForUpdate(WATERMARK)
+                .orElseThrow(() -> new IllegalStateException("Rollup watermark missing"));
+        LocalDate from = watermark.getRolledUpThrough() == null
+                ? FIRST_DAY
+                : watermark.getRolledUpThrough().plusDays(1).minusDays(Math.max(0, restateDays));
+        if (from.isAfter(yesterday)) {
+            return;
+        }
+
+        topicDailyStatRepo.deleteByActivityDateBetween(from, yesterday);
+        topicDailyStatRepo.insertActivity(null, from.atStartOfDay(), yesterday.plusDays(1).atStartOfDay());
+        watermark.setRolledUpThrough(yesterday);
+    }
+
+    /**
+     * Attempts, submissions and average mark per quiz / assignment of a course
+     * over whole days [from, to]; open ends default to the first activity and
+     * today
+     */
+    @Transactional(readOnly = true)
+    public CourseActivityReportDto getActivityReport(String courseId, LocalDate from, LocalDate to) {
+        Course course = courseRepo.findById(courseId)
+                .orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
+        User currentUser = userService.getCurrentUser();
+        if (!course.getCreator().getId().equals(currentUser.getId())
+                && !currentUser.getRole().name().equals("ADMIN")) {
+            throw new CustomException("Only course creator or admin can view activity reports",
+                    HttpStatus.FORBIDDEN);
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = from != null ? from : FIRST_DAY;
+        LocalDate toDate = to != null && to.isBefore(today) ? to : today;
+        if (fromDate.isAfter(toDate)) {
+            throw new CustomException("From date must not be after to date", HttpStatus.BAD_REQUEST);
+        }
+
+        LocalDate rolledUpThrough = rollupWatermarkRepo.findById(WATERMARK)
+                .map(RollupWatermark::getRolledUpThrough)
+                .orElse(null);
+
+        Map<UUID, Activity> activityByTopic = new HashMap<>();
+        // Rolled-up days
+        if (rolledUpThrough != null && !fromDate.isAfter(rolledUpThrough)) {
+            LocalDate rollupTo = toDate.isBefore(rolledUpThrough) ? toDate : rolledUpThrough;
+            for (Object[] row : topicDailyStatRepo.sumByCourseId(courseId, fromDate, rollupTo)) {
+                add(activityByTopic, (UUID) row[0], ((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+                        ((Number) row[3]).longValue(), ((Number) row[4]).doubleValue());
+            }
+        }
+        // Days after the watermark, from the responses
+        LocalDate rawFrom = rolledUpThrough != null && !fromDate.isAfter(rolledUpThrough)
+                ? rolledUpThrough.plusDays(1)
+                : fromDate;
+        if (!rawFrom.isAfter(toDate)) {
+            for (TopicDailyStatRepo.ActivityRow row : topicDailyStatRepo.summarizeActivity(courseId,
+                    rawFrom.atStartOfDay(), toDate.plusDays(1).atStartOfDay())) {
+                add(activityByTopic, row.getTopicId(), row.getAttemptCount(), row.getSubmissionCount(),
+                        row.getMarkCount(), row.getMarkSum());
+            }
+        }
+
+        List<CourseActivityReportDto.TopicActivity> topics = new ArrayList<>();
+        for (Object[] column : topicRepo.findGradedColumnsByCourseId(courseId)) {
+            UUID topicId = (UUID) column[0];
+            Activity activity = activityByTopic.getOrDefault(topicId, new Activity());
+            topics.add(new CourseActivityReportDto.TopicActivity(topicId, (String) column[3],
+                    ((String) column[1]).toLowerCase(), activity.attempts, activity.submissions,
+                    activity.markCount, activity.markCount > 0 ? activity.markSum / activity.markCount : null));
+        }
+        return new CourseActivityReportDto(courseId, from != null ? fromDate : null, toDate, rolledUpThrough,
+                topics);
+    }
+
+    private static void add(Map<UUID, Activity> activityByTopic, UUID topicId, long attempts, long submissions,
+            long markCount, double markSum) {
+        Activity activity = activityByTopic.computeIfAbsent(topicId, id -> new Activity());
+        activity.attempts += attempts;
+        activity.submissions += submissions;
+        activity.markCount += markCount;
+        activity.markSum += markSum;
+    }
+}
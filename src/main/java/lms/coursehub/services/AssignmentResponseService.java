@@ -1,5 +1,8 @@
 package lms.coursehub.services;
 
+import lms.coursehub.helpers.caches.GradebookCache;
+import lms.coursehub.helpers.caches.StudentReportCache;
+import lms.coursehub.helpers.caches.TeacherDashboardCache;
 import lms.coursehub.helpers.exceptions.CustomException;
 import lms.coursehub.helpers.mapstructs.AssignmentResponseMapper;
 import lms.coursehub.models.dtos.assignment.AssignmentResponseDto;
@@ -34,6 +37,9 @@ public class AssignmentResponseService {
     private final AssignmentResponseMapper assignmentResponseMapper;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final GradebookCache gradebookCache;
+    private final StudentReportCache studentReportCache;
+    private final TeacherDashboardCache teacherDashboardCache;
 
     @Transactional
     public AssignmentResponseDto createAssignmentResponse(UUID topicId, CreateAssignmentResponseRequest request) {
@@ -63,6 +69,9 @@ public class AssignmentResponseService {
         }
 
         assignmentResponse = assignmentResponseRepo.save(assignmentResponse);
+        topicAssignmentRepo.incrementResponseVersion(topicId);
+        studentReportCache.submitted(currentUser.getId());
+        teacherDashboardCache.topicChanged(topicId);
         notifyInstructorAboutSubmission(topicAssignment, currentUser);
 
         return assignmentResponseMapper.toDto(assignmentResponse);
@@ -112,6 +121,7 @@ public class AssignmentResponseService {
         }
 
         existingResponse = assignmentResponseRepo.save(existingResponse);
+        topicAssignmentRepo.incrementResponseVersion(existingResponse.getTopicAssignment().getId());
 
         return assignmentResponseMapper.toDto(existingResponse);
     }
@@ -128,6 +138,10 @@ public class AssignmentResponseService {
         }
 
         assignmentResponseRepo.delete(response);
+        topicAssignmentRepo.incrementResponseVersion(response.getTopicAssignment().getId());
+        gradebookCache.markChanged(response.getTopicAssignment().getId(), currentUser.getId(), null);
+        studentReportCache.submitted(currentUser.getId());
+        teacherDashboardCache.topicChanged(response.getTopicAssignment().getId());
     }
 
     private void notifyInstructorAboutSubmission(TopicAssignment topicAssignment, User student) {
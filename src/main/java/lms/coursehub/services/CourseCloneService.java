@@ -2,6 +2,8 @@ package lms.coursehub.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lms.coursehub.helpers.caches.MembershipCache;
+import lms.coursehub.helpers.caches.TeacherDashboardCache;
 import lms.coursehub.helpers.exceptions.CustomException;
 import lms.coursehub.models.dtos.course.CloneCourseRequest;
 import lms.coursehub.models.dtos.course.CloneCourseResponse;
@@ -29,6 +31,8 @@ public class CourseCloneService {
     private final QuestionRepo questionRepo;
     private final QuestionChoiceRepo questionChoiceRepo;
     private final EnrollmentDetailRepo enrollmentDetailRepo;
+    private final MembershipCache membershipCache;
+    private final TeacherDashboardCache teacherDashboardCache;
     private final UserService userService;
     
     // Topic-specific repos
@@ -122,6 +126,8 @@ public class CourseCloneService {
         enrollment.setCourse(clone);
         enrollment.setStudent(currentUser);
         enrollmentDetailRepo.save(enrollment);
+        membershipCache.enrolled(currentUser.getId(), clone.getId(), enrollment.getJoinDate());
+        teacherDashboardCache.teacherChanged(currentUser.getId());
 
         return new CloneCourseResponse(
             clone.getId(),
@@ -1,5 +1,7 @@
 package lms.coursehub.services;
 
+import lms.coursehub.helpers.caches.MembershipCache;
+import lms.coursehub.helpers.caches.TeacherDashboardCache;
 import lms.coursehub.helpers.exceptions.CustomException;
 import lms.coursehub.helpers.mapstructs.CourseMapper;
 import lms.coursehub.models.dtos.course.CloneCourseRequest;
@@ -30,6 +32,9 @@ public class CourseService {
     private final CourseMapper courseMapper;
     private final EnrollmentDetailRepo enrollmentDetailRepo;
     private final CourseCloneService courseCloneService;
+    private final CourseVersionService courseVersionService;
+    private final MembershipCache membershipCache;
+    private final TeacherDashboardCache teacherDashboardCache;
 
     public Course findCourseById(String id) {
         return courseRepo.findById(id).orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
@@ -51,6 +56,7 @@ public class CourseService {
         course.setCreator(userService.getCurrentUser());
 
         course = courseRepo.save(course);
+        teacherDashboardCache.teacherChanged(course.getCreator().getId());
         return courseMapper.toResponseDto(course);
     }
 
@@ -78,6 +84,7 @@ public class CourseService {
             course.setPublished(request.getIsPublished());
 
         course = courseRepo.save(course);
+        courseVersionService.bump(course.getId());
         return courseMapper.toResponseDto(course);
     }
 
@@ -97,6 +104,9 @@ public class CourseService {
         course.getEnrollmentDetails().add(enrollmentDetail);
 
         courseRepo.save(course);
+        // The outline lists enrolled students
+        courseVersionService.bump(course.getId());
+        membershipCache.enrolled(currentUser.getId(), course.getId(), enrollmentDetail.getJoinDate());
     }
 
     // GET /course/{id} - Get course by ID
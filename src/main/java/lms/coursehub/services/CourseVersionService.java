@@ -0,0 +1,49 @@
+package lms.coursehub.services;
+
+import lms.coursehub.helpers.caches.CourseOutlineCache;
+import lms.coursehub.helpers.caches.QuizPaperCache;
+import lms.coursehub.helpers.caches.TeacherDashboardCache;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.repositories.CourseRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Owns the per-course content version. Every mutation of course content bumps
+ * it in the same transaction as the change; reads use it for ETags and as the
+ * course outline cache key.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseVersionService {
+
+    private final CourseRepo courseRepo;
+    private final CourseOutlineCache courseOutlineCache;
+    private final TeacherDashboardCache teacherDashboardCache;
+    private final QuizPaperCache quizPaperCache;
+
+    @Transactional(readOnly = true)
+    public long getVersion(String courseId) {
+        return courseRepo.findContentVersionById(courseId)
+                .orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
+    }
+
+    // Record a content change of the course
+    @Transactional
+    public void bump(String courseId) {
+        if (courseId == null) {
+            return;
+        }
+        courseRepo.incrementContentVersion(courseId);
+        courseOutlineCache.invalidate(courseId);
+        quizPaperCache.invalidate(courseId);
+        teacherDashboardCache.courseChanged(courseId);
+    }
+
+    // Strong ETag of one view of the course content at the given version
+    public String etag(long version, String view) {
+        return "\"" + view + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,277 @@
+package lms.coursehub.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.models.entities.Course;
+import lms.coursehub.models.entities.User;
+import lms.coursehub.repositories.CourseRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Gradebook export: one row per enrolled student, one column per quiz and
+ * assignment of the course (outline order). Marks are base 10 like in the
+ * reports: the quiz mark follows the quiz's grading method, assignment marks
+ * are divided by 10.
+ *
+ * Rows are read from a forward-only cursor (Postgres only streams with a fetch
+ * size inside a transaction) and written straight to the response, so memory
+ * does not grow with the roster.
+ */
+@Service
+public class GradebookExportService {
+
+    public static final List<String> FORMATS = List.of("csv", "ndjson");
+
+    // Quiz and assignment columns in outline order
+    private static final String COLUMNS_SQL = """
+            SELECT t.id, t.title, t.type
+            FROM topics t JOIN sections s ON s.id = t.section_id
+            WHERE s.course_id = ? AND t.type IN ('quiz', 'assignment')
+            ORDER BY s.position, t.title, t.id
+            """;
+
+    // (student, item, mark) ordered by student; students without any mark get one row with NULL item
+    private static final String ROWS_SQL = """
+            SELECT u.id AS student_id, u.username, u.email, m.item_id, m.mark
+            FROM enrollment_details e
+            JOIN users u ON u.id = e.student_id
+            LEFT JOIN (
+                SELECT qs.student_id, qs.topic_quiz_id AS item_id,
+                       CASE q.grading_method
+                           WHEN 'Average Grade' THEN qs.avg_mark
+                           WHEN 'First Grade' THEN qs.first_mark
+                           WHEN 'Last Grade' THEN qs.last_mark
+                           ELSE qs.best_mark
+                       END AS mark
+                FROM quiz_student_stats qs
+                JOIN topic_quizzes q ON q.id = qs.topic_quiz_id
+                JOIN topics t ON t.id = q.id
+                JOIN sections s ON s.id = t.section_id
+                WHERE s.course_id = ?
+                UNION ALL
+                SELECT ar.student_id, ar.topic_assignment_id, ar.mark / 10.0
+                FROM assignment_responses ar
+                JOIN topics t ON t.id = ar.topic_assignment_id
+                JOIN sections s ON s.id = t.section_id
+                WHERE s.course_id = ? AND ar.mark IS NOT NULL
+            ) m ON m.student_id = u.id
+            WHERE e.course_id = ?
+            ORDER BY u.username, u.id
+            """;
+
+    private record Column(UUID id, String title, String type) {
+    }
+
+    private final CourseRepo courseRepo;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+
+    public GradebookExportService(CourseRepo courseRepo, UserService userService, DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${coursehub.gradebook.fetch-size:500}") int fetchSize) {
+        this.courseRepo = courseRepo;
+        this.userService = userService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Validate access and format up front (so errors still become proper
+     * responses), then return a body that streams the gradebook when written
+     */
+    public StreamingResponseBody export(String courseId, String format) {
+        String exportFormat = format != null ? format.toLowerCase() : "csv";
+        if (!FORMATS.contains(exportFormat)) {
+            throw new CustomException("Export format must be one of " + FORMATS, HttpStatus.BAD_REQUEST);
+        }
+
+        Course course = courseRepo.findById(courseId)
+                .orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
+        User currentUser = userService.getCurrentUser();
+        if (!course.getCreator().getId().equals(currentUser.getId())
+                && !currentUser.getRole().name().equals("ADMIN")) {
+            throw new CustomException("Only course creator or admin can export grades", HttpStatus.FORBIDDEN);
+        }
+
+        List<Column> columns = jdbcTemplate.query(COLUMNS_SQL,
+                (rs, rowNum) -> new Column(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)), courseId);
+
+        return outputStream -> {
+            GradebookWriter writer = "csv".equals(exportFormat)
+                    ? new CsvWriter(outputStream, columns)
+                    : new NdjsonWriter(outputStream, columns);
+            writer.writeHeader();
+            readOnlyTx.executeWithoutResult(status -> streamRows(courseId, columns, writer));
+            writer.close();
+        };
+    }
+
+    // Pivots the student-ordered (student, item, mark) stream into one row per student
+    private void streamRows(String courseId, List<Column> columns, GradebookWriter writer) {
+        Map<UUID, Integer> columnIndex = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            columnIndex.put(columns.get(i).id(), i);
+        }
+
+        Double[] marks = new Double[columns.size()];
+        UUID[] currentStudent = { null };
+        String[] currentName = new String[2];
+
+        jdbcTemplate.query(ROWS_SQL, (RowCallbackHandler) rs -> {
+            UUID studentId = rs.getObject("student_id", UUID.class);
+            if (!studentId.equals(currentStudent[0])) {
+                if (currentStudent[0] != null) {
+                    writeRow(writer, currentStudent[0], currentName, marks);
+                }
+                currentStudent[0] = studentId;
+                currentName[0] = rs.getString("username");
+                currentName[1] = rs.getString("email");
+                Arrays.fill(marks, null);
+            }
+
+            UUID itemId = rs.getObject("item_id", UUID.class);
+            Integer index = itemId != null ? columnIndex.get(itemId) : null;
+            if (index != null) {
+                marks[index] = rs.getDouble("mark");
+            }
+        }, courseId, courseId, courseId);
+
+        if (currentStudent[0] != null) {
+            writeRow(writer, currentStudent[0], currentName, marks);
+        }
+    }
+
+    private static void writeRow(GradebookWriter writer, UUID studentId, String[] name, Double[] marks) {
+        try {
+            writer.writeRow(studentId, name[0], name[1], marks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface GradebookWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(UUID studentId, String username, String email, Double[] marks) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private static final class CsvWriter implements GradebookWriter {
+        private final Writer out;
+        private final List<Column> columns;
+
+        CsvWriter(OutputStream outputStream, List<Column> columns) {
+            this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.columns = columns;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            out.write("student_id,username,email");
+            for (Column column : columns) {
+                out.write(',');
+                out.write(escape(column.title()));
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void writeRow(UUID studentId, String username, String email, Double[] marks) throws IOException {
+            out.write(studentId.toString());
+            out.write(',');
+            out.write(escape(username));
+            out.write(',');
+            out.write(escape(email));
+            for (Double mark : marks) {
+                out.write(',');
+                if (mark != null) {
+                    out.write(Double.toString(mark));
+                }
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    // First line describes the columns, then one object per student with marks keyed by topic id
+    private static final class NdjsonWriter implements GradebookWriter {
+        private final JsonGenerator json;
+        private final List<Column> columns;
+
+        NdjsonWriter(OutputStream outputStream, List<Column> columns) throws IOException {
+            this.json = new JsonFactory().createGenerator(outputStream);
+            this.json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            this.columns = columns;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            json.writeStartObject();
+            json.writeArrayFieldStart("columns");
+            for (Column column : columns) {
+                json.writeStartObject();
+                json.writeStringField("topicId", column.id().toString());
+                json.writeStringField("title", column.title());
+                json.writeStringField("type", column.type());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+
+        @Override
+        public void writeRow(UUID studentId, String username, String email, Double[] marks) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("studentId", studentId.toString());
+            json.writeStringField("username", username);
+            json.writeStringField("email", email);
+            json.writeObjectFieldStart("marks");
+            for (int i = 0; i < marks.length; i++) {
+                if (marks[i] != null) {
+                    json.writeNumberField(columns.get(i).id().toString(), marks[i]);
+                }
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.writeRaw('\n');
+            json.flush();
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -67,6 +68,22 @@ public class NotificationService {
         return notificationMapper.toDto(saved);
     }
 
+    // Same notification for many users: users are referenced by id, not loaded, and
+    // the rows are inserted through JDBC batching
+    @Transactional
+    public void notifyUsers(Collection<UUID> userIds, String title, String message) {
+        List<Notification> notifications = userIds.stream()
+                .map(userId -> {
+                    Notification notification = new Notification();
+                    notification.setUser(userRepo.getReferenceById(userId));
+                    notification.setTitle(title);
+                    notification.setMessage(message);
+                    return notification;
+                })
+                .toList();
+        notificationRepo.saveAll(notifications);
+    }
+
     // Convenience hook for other services to call when events happen
     public void notifyUser(UUID userId, String title, String message) {
         createNotification(userId, title, message);
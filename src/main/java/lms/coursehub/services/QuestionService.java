@@ -1,5 +1,6 @@
 package lms.coursehub.services;
 
+import lms.coursehub.helpers.caches.AnswerKeyCache;
 import lms.coursehub.helpers.exceptions.CustomException;
 import lms.coursehub.helpers.mapstructs.QuestionMapper;
 import lms.coursehub.models.dtos.question.*;
@@ -20,6 +21,9 @@ public class QuestionService {
     private final QuestionRepo questionRepo;
     private final QuestionChoiceRepo questionChoiceRepo;
     private final UserService userService;
+    private final TopicQuizRepo topicQuizRepo;
+    private final CourseVersionService courseVersionService;
+    private final AnswerKeyCache answerKeyCache;
 
     private Question findQuestionById(UUID id) {
         return questionRepo.findById(id)
@@ -61,6 +65,9 @@ public class QuestionService {
         }
 
         Question updatedQuestion = questionRepo.save(existingQuestion);
+        // Quizzes embed their questions, so every course using this one has changed
+        topicQuizRepo.findCourseIdsByQuestionId(id).forEach(courseVersionService::bump);
+        answerKeyCache.questionChanged(id);
         return QuestionMapper.INSTANCE.toDto(updatedQuestion);
     }
 
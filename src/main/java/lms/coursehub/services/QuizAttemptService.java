@@ -0,0 +1,314 @@
+package lms.coursehub.services;
+
+import jakarta.annotation.PreDestroy;
+import lms.coursehub.helpers.caches.AnswerKeyCache;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.helpers.mapstructs.QuizResponseMapper;
+import lms.coursehub.helpers.utils.AnswerKey;
+import lms.coursehub.helpers.utils.TransactionHooks;
+import lms.coursehub.models.dtos.quiz.CreateQuizResponseAnswerDto;
+import lms.coursehub.models.dtos.quiz.QuizResponseDto;
+import lms.coursehub.models.entities.QuizResponse;
+import lms.coursehub.models.entities.QuizResponseAnswer;
+import lms.coursehub.models.entities.TopicQuiz;
+import lms.coursehub.models.entities.User;
+import lms.coursehub.repositories.QuizResponseAnswerRepo;
+import lms.coursehub.repositories.QuizResponseRepo;
+import lms.coursehub.repositories.TopicQuizRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-progress quiz attempts with autosave. Saved answers go into a per-node
+ * write-behind buffer keyed by attempt that keeps only the latest answer per
+ * question; a timer writes the buffer to quiz_response_answers in batches, and
+ * submitting an attempt writes its buffered answers before grading it.
+ *
+ * Buffered answers are taken out of the buffer only while their attempt row is
+ * locked, so a flush and a submit of the same attempt never reorder writes.
+ * Answers still buffered on another node when an attempt is submitted are
+ * dropped by that node's next flush.
+ */
+@Slf4j
+@Service
+public class QuizAttemptService {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String SUBMITTED = "SUBMITTED";
+    // Length of quiz_response_answers.answer
+    private static final int MAX_ANSWER_LENGTH = 255;
+
+    // Ownership of an open attempt, so autosaves are checked without reading it
+    private record Attempt(UUID topicQuizId, String studentEmail, long loadedAt) {
+    }
+
+    private final QuizResponseRepo quizResponseRepo;
+    private final QuizResponseAnswerRepo answerRepo;
+    private final TopicQuizRepo topicQuizRepo;
+    private final UserService userService;
+    private final QuizStatsService quizStatsService;
+    private final AnswerKeyCache answerKeyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+    private final long attemptTtlMillis;
+
+    // Attempt id -> question id -> latest answer text
+    private final Map<UUID, Map<String, String>> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, Attempt> openAttempts = new ConcurrentHashMap<>();
+
+    public QuizAttemptService(QuizResponseRepo quizResponseRepo, QuizResponseAnswerRepo answerRepo,
+            TopicQuizRepo topicQuizRepo, UserService userService, QuizStatsService quizStatsService,
+            AnswerKeyCache answerKeyCache, PlatformTransactionManager transactionManager,
+            @Value("${coursehub.autosave.flush-batch-size:500}") int flushBatchSize,
+            @Value("${coursehub.autosave.attempt-ttl-minutes:60}") long attemptTtlMinutes) {
+        this.quizResponseRepo = quizResponseRepo;
+        this.answerRepo = answerRepo;
+        this.topicQuizRepo = topicQuizRepo;
+        this.userService = userService;
+        this.quizStatsService = quizStatsService;
+        this.answerKeyCache = answerKeyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        this.attemptTtlMillis = attemptTtlMinutes * 60_000;
+    }
+
+    @Transactional
+    public QuizResponseDto startAttempt(UUID topicId) {
+        TopicQuiz topicQuiz = topicQuizRepo.findById(topicId)
+                .orElseThrow(() -> new CustomException("Topic quiz not found", HttpStatus.NOT_FOUND));
+        User currentUser = userService.getCurrentUser();
+
+        QuizResponse quizResponse = new QuizResponse();
+        quizResponse.setTopicQuiz(topicQuiz);
+        quizResponse.setStudent(currentUser);
+        quizResponse.setStartedAt(LocalDateTime.now());
+        quizResponse.setStatus(IN_PROGRESS);
+        quizResponse = quizResponseRepo.save(quizResponse);
+
+        openAttempts.put(quizResponse.getId(),
+                new Attempt(topicId, currentUser.getEmail(), System.currentTimeMillis()));
+        return QuizResponseMapper.INSTANCE.toDto(quizResponse);
+    }
+
+    // Buffer the answers of an open attempt; they are written by the next flush or the submit
+    public void saveAnswers(UUID topicId, UUID responseId, List<CreateQuizResponseAnswerDto> answers) {
+        Attempt attempt = openAttempts.computeIfAbsent(responseId, this::loadAttempt);
+        if (!attempt.topicQuizId().equals(topicId)) {
+            throw new CustomException("Quiz response does not belong to this topic", HttpStatus.BAD_REQUEST);
+        }
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!attempt.studentEmail().equals(email)) {
+            throw new CustomException("You are not authorized to update this response", HttpStatus.FORBIDDEN);
+        }
+        validate(answerKeyCache.get(attempt.topicQuizId()), answers);
+        buffer(responseId, answers);
+    }
+
+    /**
+     * Write the attempt's buffered answers (plus any sent with the submit),
+     * grade all of its answers and close it
+     */
+    @Transactional
+    public QuizResponseDto submitAttempt(UUID topicId, UUID responseId, List<CreateQuizResponseAnswerDto> answers) {
+        QuizResponse response = quizResponseRepo.findForUpdate(responseId)
+                .orElseThrow(() -> new CustomException("Quiz response not found", HttpStatus.NOT_FOUND));
+        TopicQuiz topicQuiz = response.getTopicQuiz();
+        if (!topicQuiz.getId().equals(topicId)) {
+            throw new CustomException("Quiz response does not belong to this topic", HttpStatus.BAD_REQUEST);
+        }
+        User currentUser = userService.getCurrentUser();
+        if (!response.getStudent().getId().equals(currentUser.getId())) {
+            throw new CustomException("You are not authorized to update this response", HttpStatus.FORBIDDEN);
+        }
+        if (!IN_PROGRESS.equals(response.getStatus())) {
+            throw new CustomException("Quiz attempt is already submitted", HttpStatus.BAD_REQUEST);
+        }
+
+        AnswerKey answerKey = answerKeyCache.get(topicQuiz.getId());
+        validate(answerKey, answers);
+        buffer(responseId, answers);
+        Map<String, String> buffered = pending.remove(responseId);
+        if (buffered != null) {
+            // The attempt stays open when the submit fails, so its answers go back into the buffer
+            TransactionHooks.afterRollback(() -> requeue(Map.of(responseId, buffered)));
+            writeAnswers(response, buffered, answerKey);
+        }
+        // Answers flushed earlier were stored unmarked
+        for (QuizResponseAnswer answer : answerRepo.findByQuizResponseId(responseId)) {
+            if (buffered == null || !buffered.containsKey(answer.getQuestion())) {
+                answer.setMark(answerKey.grade(answer.getQuestion(), answer.getAnswer()));
+            }
+        }
+
+        response.setCompletedAt(LocalDateTime.now());
+        response.setStatus(SUBMITTED);
+        openAttempts.remove(responseId);
+
+        quizStatsService.refreshStudent(topicQuiz, currentUser.getId());
+        return QuizResponseMapper.INSTANCE.toDto(response);
+    }
+
+    /**
+     * Write the buffered answers of every attempt, a batch of attempts per
+     * transaction. A failed batch is retried one attempt per transaction, so
+     * one attempt that cannot be written does not hold back the others; its
+     * answers are dropped unless the failure was a transient one (connection,
+     * lock), in which case they go back into the buffer for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${coursehub.autosave.flush-interval-ms:2000}")
+    public void flushPending() {
+        List<UUID> responseIds = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < responseIds.size(); from += flushBatchSize) {
+            List<UUID> batch = responseIds.subList(from, Math.min(from + flushBatchSize, responseIds.size()));
+            Map<UUID, Map<String, String>> drained = new HashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> flushBatch(batch, drained));
+            } catch (RuntimeException e) {
+                requeue(drained);
+                if (isTransient(e)) {
+                    continue;
+                }
+                for (UUID responseId : batch) {
+                    flushAlone(responseId);
+                }
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - attemptTtlMillis;
+        openAttempts.entrySet().removeIf(e -> e.getValue().loadedAt() < cutoff && !pending.containsKey(e.getKey()));
+    }
+
+    private void flushAlone(UUID responseId) {
+        Map<UUID, Map<String, String>> drained = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> flushBatch(List.of(responseId), drained));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                requeue(drained);
+            } else {
+                Map<String, String> answers = drained.get(responseId);
+                log.warn("Dropped {} autosaved answers of quiz attempt {} that could not be written",
+                        answers != null ? answers.size() : 0, responseId, e);
+            }
+        }
+    }
+
+    // Put drained answers back into the buffer unless newer ones arrived meanwhile
+    private void requeue(Map<UUID, Map<String, String>> drained) {
+        drained.forEach((responseId, answers) -> pending.merge(responseId, answers, (newer, older) -> {
+            older.putAll(newer);
+            return older;
+        }));
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void flushBatch(List<UUID> responseIds, Map<UUID, Map<String, String>> drained) {
+        drained.clear();
+        Set<UUID> found = new HashSet<>();
+        for (QuizResponse response : quizResponseRepo.findAllForUpdate(responseIds)) {
+            found.add(response.getId());
+            Map<String, String> answers = pending.remove(response.getId());
+            if (answers == null) {
+                continue;
+            }
+            if (!IN_PROGRESS.equals(response.getStatus())) {
+                // Submitted (or reopened elsewhere) since these were saved
+                openAttempts.remove(response.getId());
+                continue;
+            }
+            drained.put(response.getId(), answers);
+            writeAnswers(response, answers, null);
+        }
+        // Attempts deleted meanwhile
+        for (UUID responseId : responseIds) {
+            if (!found.contains(responseId)) {
+                pending.remove(responseId);
+                openAttempts.remove(responseId);
+            }
+        }
+    }
+
+    // Replace the stored answers to these questions; unmarked unless an answer key is given
+    private void writeAnswers(QuizResponse response, Map<String, String> answers, AnswerKey answerKey) {
+        answerRepo.deleteByQuizResponseIdAndQuestionIn(response.getId(), answers.keySet());
+
+        List<QuizResponseAnswer> rows = new ArrayList<>(answers.size());
+        answers.forEach((questionId, answerText) -> {
+            QuizResponseAnswer answer = new QuizResponseAnswer();
+            answer.setQuizResponse(response);
+            answer.setQuestion(questionId);
+            answer.setAnswer(answerText);
+            answer.setMark(answerKey != null ? answerKey.grade(questionId, answerText) : BigDecimal.ZERO);
+            rows.add(answer);
+        });
+        answerRepo.saveAll(rows);
+    }
+
+    // Answers must be to questions of the quiz and fit the answer column
+    private static void validate(AnswerKey answerKey, List<CreateQuizResponseAnswerDto> answers) {
+        if (answers == null) {
+            return;
+        }
+        for (CreateQuizResponseAnswerDto answer : answers) {
+            if (answer.getQuestionId() == null || !answerKey.getQuestionIds().contains(answer.getQuestionId())) {
+                throw new CustomException("Question does not belong to this quiz", HttpStatus.BAD_REQUEST);
+            }
+            if (answer.getAnswerText() != null && answer.getAnswerText().length() > MAX_ANSWER_LENGTH) {
+                throw new CustomException("Answer must be at most " + MAX_ANSWER_LENGTH + " characters",
+                        HttpStatus.BAD_REQUEST);
+            }
+        }
+    }
+
+    private void buffer(UUID responseId, List<CreateQuizResponseAnswerDto> answers) {
+        if (answers == null || answers.isEmpty()) {
+            return;
+        }
+        pending.compute(responseId, (id, buffered) -> {
+            Map<String, String> latest = buffered != null ? buffered : new HashMap<>();
+            for (CreateQuizResponseAnswerDto answer : answers) {
+                if (answer.getQuestionId() != null) {
+                    latest.put(answer.getQuestionId(), answer.getAnswerText());
+                }
+            }
+            return latest;
+        });
+    }
+
+    private Attempt loadAttempt(UUID responseId) {
+        List<Object[]> rows = quizResponseRepo.findAttemptInfoById(responseId);
+        if (rows.isEmpty()) {
+            throw new CustomException("Quiz response not found", HttpStatus.NOT_FOUND);
+        }
+        Object[] row = rows.get(0);
+        if (!IN_PROGRESS.equals(row[2])) {
+            throw new CustomException("Quiz attempt is already submitted", HttpStatus.BAD_REQUEST);
+        }
+        return new Attempt((UUID) row[0], (String) row[1], System.currentTimeMillis());
+    }
+
+    // Write what is still buffered before the node goes away
+    @PreDestroy
+    public void shutdown() {
+        flushPending();
+    }
+}
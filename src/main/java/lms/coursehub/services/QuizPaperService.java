@@ -0,0 +1,113 @@
+package lms.coursehub.services;
+
+import lms.coursehub.helpers.caches.QuizPaperCache;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.models.dtos.quiz.QuizPaperDto;
+import lms.coursehub.models.entities.Question;
+import lms.coursehub.models.entities.TopicQuiz;
+import lms.coursehub.repositories.QuestionRepo;
+import lms.coursehub.repositories.TopicQuizRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Student-facing quiz papers, served from QuizPaperCache. Papers of quizzes
+ * about to open are rendered ahead of time, so the requests arriving when a
+ * quiz opens only read the course's content version.
+ */
+@Service
+public class QuizPaperService {
+
+    private final TopicQuizRepo topicQuizRepo;
+    private final QuestionRepo questionRepo;
+    private final QuizPaperCache quizPaperCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long warmupLeadMinutes;
+
+    public QuizPaperService(TopicQuizRepo topicQuizRepo, QuestionRepo questionRepo, QuizPaperCache quizPaperCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${coursehub.quiz-papers.warmup-lead-minutes:10}") long warmupLeadMinutes) {
+        this.topicQuizRepo = topicQuizRepo;
+        this.questionRepo = questionRepo;
+        this.quizPaperCache = quizPaperCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.warmupLeadMinutes = warmupLeadMinutes;
+    }
+
+    // JSON of the quiz paper at the course's content version
+    public byte[] getPaper(String courseId, UUID topicId, long version) {
+        QuizPaperCache.Paper paper = quizPaperCache.getOrBuild(courseId, topicId, version,
+                () -> buildPaper(courseId, topicId));
+        if (paper.open() != null && LocalDateTime.now().isBefore(paper.open())) {
+            throw new CustomException("Quiz is not open yet", HttpStatus.FORBIDDEN);
+        }
+        return paper.json();
+    }
+
+    // Render the papers of quizzes opening within the lead time
+    @Scheduled(fixedDelayString = "${coursehub.quiz-papers.warmup-interval-ms:60000}")
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : topicQuizRepo.findOpeningBetween(now, now.plusMinutes(warmupLeadMinutes))) {
+            UUID topicId = (UUID) row[0];
+            String courseId = (String) row[1];
+            long version = ((Number) row[2]).longValue();
+            if (quizPaperCache.contains(courseId, topicId, version)) {
+                continue;
+            }
+            try {
+                quizPaperCache.getOrBuild(courseId, topicId, version, () -> buildPaper(courseId, topicId));
+            } catch (RuntimeException e) {
+                // Rendered on demand instead
+            }
+        }
+    }
+
+    private QuizPaperDto buildPaper(String courseId, UUID topicId) {
+        return readOnlyTransaction.execute(status -> {
+            TopicQuiz quiz = topicQuizRepo.findWithTopicById(topicId)
+                    .orElseThrow(() -> new CustomException("Topic quiz not found", HttpStatus.NOT_FOUND));
+            if (!quiz.getTopic().getSection().getCourse().getId().equals(courseId)) {
+                throw new CustomException("Topic does not belong to the specified course", HttpStatus.BAD_REQUEST);
+            }
+
+            // Loads the choices into the persistence context; the quiz's list keeps the question order
+            questionRepo.findWithChoicesByTopicQuizId(topicId);
+            List<QuizPaperDto.PaperQuestion> questions = quiz.getQuestions().stream()
+                    .map(QuizPaperService::toPaperQuestion)
+                    .toList();
+
+            return new QuizPaperDto(topicId, quiz.getTopic().getTitle(), quiz.getDescription(), quiz.getOpen(),
+                    quiz.getClose(), quiz.getTimeLimit(), quiz.getTimeLimitUnit(), quiz.getAttemptAllowed(),
+                    questions);
+        });
+    }
+
+    private static QuizPaperDto.PaperQuestion toPaperQuestion(Question question) {
+        // Choices of a Short Answer question are its accepted answers
+        List<QuizPaperDto.PaperChoice> choices = isShortAnswer(question.getType())
+                ? List.of()
+                : question.getQuestionChoices().stream()
+                        .map(choice -> new QuizPaperDto.PaperChoice(choice.getId(), choice.getText()))
+                        .toList();
+        return new QuizPaperDto.PaperQuestion(question.getId(), question.getQuestionText(), question.getType(),
+                question.getDefaultMark(), question.isMultiple(), choices);
+    }
+
+    private static boolean isShortAnswer(String type) {
+        if (type == null) {
+            return false;
+        }
+        String normalized = type.trim().toLowerCase();
+        return normalized.equals("short answer") || normalized.equals("short_answer");
+    }
+}
@@ -0,0 +1,70 @@
+package lms.coursehub.services;
+
+import lms.coursehub.models.entities.QuizStat;
+import lms.coursehub.models.entities.QuizStudentStat;
+import lms.coursehub.repositories.QuizStatRepo;
+import lms.coursehub.repositories.QuizStudentStatRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Quiz report figures read from the incrementally maintained quiz stats (see
+ * QuizStatsService): one quiz row plus one row per student who attempted it.
+ * Raw responses and answers are only read when the stats have to be rebuilt.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizReportEngine {
+
+    public static final String DEFAULT_GRADING_METHOD = "Highest Grade";
+
+    private final QuizStatRepo quizStatRepo;
+    private final QuizStudentStatRepo quizStudentStatRepo;
+    private final QuizStatsService quizStatsService;
+
+    public record QuizMarks(Map<UUID, Double> studentMarks, QuizStat stat, double minMark, double maxMark) {
+
+        public double avgMark() {
+            return stat.getStudentCount() == 0 ? 0.0 : stat.getMarkSum() / stat.getStudentCount();
+        }
+
+        public long attemptCount() {
+            return stat.getAttemptCount();
+        }
+
+        // Average duration in seconds of the attempts that were completed
+        public double avgTimeSpent() {
+            return stat.getTimedAttemptCount() == 0 ? 0.0
+                    : (double) stat.getTotalTimeSeconds() / stat.getTimedAttemptCount();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public QuizMarks computeMarks(UUID topicQuizId, String gradingMethod) {
+        String method = gradingMethod != null ? gradingMethod : DEFAULT_GRADING_METHOD;
+
+        // Stats built for another grading method are recomputed first
+        QuizStat stat = quizStatRepo.findById(topicQuizId)
+                .filter(existing -> method.equals(existing.getGradingMethod()))
+                .orElseGet(() -> quizStatsService.rebuild(topicQuizId, method));
+
+        Map<UUID, Double> studentMarks = new HashMap<>();
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (QuizStudentStat studentStat : quizStudentStatRepo.findByTopicQuizId(topicQuizId)) {
+            double mark = studentStat.markFor(method);
+            studentMarks.put(studentStat.getStudentId(), mark);
+            min = Math.min(min, mark);
+            max = Math.max(max, mark);
+        }
+
+        return studentMarks.isEmpty()
+                ? new QuizMarks(studentMarks, stat, 0.0, 0.0)
+                : new QuizMarks(studentMarks, stat, min, max);
+    }
+}
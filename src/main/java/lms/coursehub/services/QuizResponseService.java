@@ -1,7 +1,9 @@
 package lms.coursehub.services;
 
+import lms.coursehub.helpers.caches.AnswerKeyCache;
 import lms.coursehub.helpers.exceptions.CustomException;
 import lms.coursehub.helpers.mapstructs.QuizResponseMapper;
+import lms.coursehub.helpers.utils.AnswerKey;
 import lms.coursehub.models.dtos.quiz.CreateQuizResponseRequest;
 import lms.coursehub.models.dtos.quiz.CreateQuizResponseAnswerDto;
 import lms.coursehub.models.dtos.quiz.QuizResponseDto;
@@ -13,8 +15,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,9 +24,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class QuizResponseService {
     private final QuizResponseRepo quizResponseRepo;
-    private final QuizResponseAnswerRepo answerRepo;
     private final TopicQuizRepo topicQuizRepo;
     private final UserService userService;
+    private final QuizStatsService quizStatsService;
+    private final AnswerKeyCache answerKeyCache;
 
     private TopicQuiz findTopicQuizById(UUID topicId) {
         return topicQuizRepo.findById(topicId)
@@ -59,26 +62,28 @@ public class QuizResponseService {
         quizResponse.setStudent(currentUser);
         quizResponse.setStartedAt(LocalDateTime.now());
         quizResponse.setStatus("SUBMITTED");
-        
-        QuizResponse savedResponse = quizResponseRepo.save(quizResponse);
 
-        // Create answers
+        // Create answers, graded against the quiz's cached answer key
         if (request.getAnswers() != null) {
+            AnswerKey answerKey = answerKeyCache.get(topicQuiz.getId());
+            List<QuizResponseAnswer> answers = new ArrayList<>(request.getAnswers().size());
             for (CreateQuizResponseAnswerDto answerRequest : request.getAnswers()) {
                 QuizResponseAnswer answer = new QuizResponseAnswer();
-                answer.setQuizResponse(savedResponse);
+                answer.setQuizResponse(quizResponse);
                 answer.setQuestion(answerRequest.getQuestionId());
                 answer.setAnswer(answerRequest.getAnswerText());
-                answer.setMark(BigDecimal.ZERO);
-                
-                // Save answer
-                answerRepo.save(answer);
+                answer.setMark(answerKey.grade(answerRequest.getQuestionId(), answerRequest.getAnswerText()));
+                answers.add(answer);
             }
-
-            savedResponse.setCompletedAt(LocalDateTime.now());
-            savedResponse = quizResponseRepo.save(savedResponse);
+            quizResponse.getQuizResponseAnswers().addAll(answers);
+            quizResponse.setCompletedAt(LocalDateTime.now());
         }
 
+        // One insert for the response and JDBC-batched inserts for its answers (cascade), sent at flush
+        QuizResponse savedResponse = quizResponseRepo.save(quizResponse);
+
+        quizStatsService.refreshStudent(topicQuiz, currentUser.getId());
+
         return QuizResponseMapper.INSTANCE.toDto(savedResponse);
     }
 
@@ -127,6 +132,8 @@ public class QuizResponseService {
 
         // Save and return updated response
         QuizResponse updatedResponse = quizResponseRepo.save(response);
+        // Completion time feeds the time-spent stats
+        quizStatsService.refreshStudent(topicQuiz, response.getStudent().getId());
         return QuizResponseMapper.INSTANCE.toDto(updatedResponse);
     }
 
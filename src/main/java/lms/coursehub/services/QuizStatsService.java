@@ -0,0 +1,286 @@
+package lms.coursehub.services;
+
+import lms.coursehub.helpers.caches.GradebookCache;
+import lms.coursehub.helpers.caches.StudentReportCache;
+import lms.coursehub.helpers.caches.TeacherDashboardCache;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.models.entities.QuizStat;
+import lms.coursehub.models.entities.QuizStudentStat;
+import lms.coursehub.models.entities.TopicQuiz;
+import lms.coursehub.models.entities.User;
+import lms.coursehub.repositories.QuizResponseRepo;
+import lms.coursehub.repositories.QuizResponseRepo.StudentStatRow;
+import lms.coursehub.repositories.QuizStatRepo;
+import lms.coursehub.repositories.QuizStudentStatRepo;
+import lms.coursehub.repositories.TopicQuizRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains quiz_stats / quiz_student_stats. A submission only re-summarizes
+ * the submitting student's attempts and applies the difference to the quiz
+ * row, so reports read precomputed aggregates instead of raw responses.
+ *
+ * Every refresh and rebuild first creates the quiz row if missing and locks
+ * it, so the stats of one quiz are changed by one transaction at a time and
+ * concurrent first submissions never insert the same rows twice. Submissions
+ * update the quiz row anyway, so the lock only moves that wait earlier.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuizStatsService {
+
+    private final QuizStatRepo quizStatRepo;
+    private final QuizStudentStatRepo quizStudentStatRepo;
+    private final QuizResponseRepo quizResponseRepo;
+    private final TopicQuizRepo topicQuizRepo;
+    private final GradebookCache gradebookCache;
+    private final StudentReportCache studentReportCache;
+    private final TeacherDashboardCache teacherDashboardCache;
+    private final UserService userService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Bring the stats in line with one student's attempts; call in the
+     * transaction that changed them
+     */
+    @Transactional
+    public void refreshStudent(TopicQuiz topicQuiz, UUID studentId) {
+        UUID topicQuizId = topicQuiz.getId();
+        String gradingMethod = gradingMethodOf(topicQuiz);
+        studentReportCache.submitted(studentId);
+        teacherDashboardCache.topicChanged(topicQuizId);
+
+        // Pending responses/answers must be visible to the native summary query
+        quizResponseRepo.flush();
+
+        QuizStat stat = lockStat(topicQuizId);
+        if (!gradingMethod.equals(stat.getGradingMethod())) {
+            // Never built, or built for another grading method: the rebuild covers this student
+            rebuildLocked(stat, gradingMethod);
+            return;
+        }
+
+        QuizStudentStat studentStat = quizStudentStatRepo.findForUpdate(topicQuizId, studentId).orElse(null);
+        List<StudentStatRow> rows = quizResponseRepo.summarizeAttempts(topicQuizId, studentId);
+
+        Delta delta = new Delta();
+        if (studentStat != null) {
+            delta.remove(studentStat, gradingMethod);
+        }
+        if (rows.isEmpty()) {
+            if (studentStat != null) {
+                quizStudentStatRepo.delete(studentStat);
+            }
+            gradebookCache.markChanged(topicQuizId, studentId, null);
+        } else {
+            if (studentStat == null) {
+                studentStat = new QuizStudentStat();
+                studentStat.setTopicQuizId(topicQuizId);
+                studentStat.setStudentId(studentId);
+            }
+            copy(rows.get(0), studentStat);
+            quizStudentStatRepo.save(studentStat);
+            delta.add(studentStat, gradingMethod);
+            gradebookCache.markChanged(topicQuizId, studentId, studentStat.markFor(gradingMethod));
+        }
+
+        quizStatRepo.applyDelta(topicQuizId, delta.attempts, delta.students, delta.markSum,
+                delta.over8, delta.over5, delta.over2, delta.over0, delta.timedAttempts, delta.timeSeconds);
+    }
+
+    /**
+     * Recompute a quiz's stats from its responses, e.g. after its grading
+     * method changed. Runs in its own transaction (when called through the
+     * proxy) so read-only report requests can trigger it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public QuizStat rebuild(UUID topicQuizId, String gradingMethod) {
+        String method = gradingMethod != null ? gradingMethod : QuizReportEngine.DEFAULT_GRADING_METHOD;
+        return rebuildLocked(lockStat(topicQuizId), method);
+    }
+
+    // Admin maintenance command
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public QuizStat rebuild(UUID topicQuizId) {
+        requireAdmin();
+        TopicQuiz topicQuiz = topicQuizRepo.findById(topicQuizId)
+                .orElseThrow(() -> new CustomException("Topic quiz not found", HttpStatus.NOT_FOUND));
+        return rebuild(topicQuizId, topicQuiz.getGradingMethod());
+    }
+
+    /**
+     * Build the stats of every quiz that has none yet (quizzes from before the
+     * stats existed), one transaction per quiz, so gradebooks and reports that
+     * read the stats see every quiz. Quizzes built meanwhile, e.g. by another
+     * node doing the same, are skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Object[]> quizzes = topicQuizRepo.findGradingMethodsWithoutStats();
+        for (Object[] row : quizzes) {
+            UUID topicQuizId = (UUID) row[0];
+            String method = row[1] != null ? (String) row[1] : QuizReportEngine.DEFAULT_GRADING_METHOD;
+            transaction.executeWithoutResult(status -> {
+                QuizStat stat = lockStat(topicQuizId);
+                if (stat.getGradingMethod() == null) {
+                    rebuildLocked(stat, method);
+                }
+            });
+        }
+        // Self-reports computed before a quiz was built counted it as not attempted
+        if (!quizzes.isEmpty()) {
+            studentReportCache.clear();
+        }
+    }
+
+    /**
+     * Recompute the stats of every quiz from scratch (admin maintenance
+     * command), one transaction per quiz, so each quiz's row lock is held only
+     * while that quiz is rebuilt and a failing quiz does not undo the others.
+     * Returns the number of quizzes rebuilt.
+     */
+    public int rebuildAll() {
+        requireAdmin();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int rebuilt = 0;
+        for (Object[] row : topicQuizRepo.findAllGradingMethods()) {
+            UUID topicQuizId = (UUID) row[0];
+            String method = row[1] != null ? (String) row[1] : QuizReportEngine.DEFAULT_GRADING_METHOD;
+            try {
+                transaction.executeWithoutResult(status -> rebuildLocked(lockStat(topicQuizId), method));
+                rebuilt++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebuild the stats of quiz {}", topicQuizId, e);
+            }
+        }
+        return rebuilt;
+    }
+
+    @Transactional
+    public void delete(UUID topicQuizId) {
+        quizStudentStatRepo.deleteByTopicQuizId(topicQuizId);
+        quizStatRepo.deleteById(topicQuizId);
+        gradebookCache.columnChanged(topicQuizId);
+    }
+
+    private void requireAdmin() {
+        User currentUser = userService.getCurrentUser();
+        if (!currentUser.getRole().name().equals("ADMIN")) {
+            throw new CustomException("Only admin can rebuild quiz statistics", HttpStatus.FORBIDDEN);
+        }
+    }
+
+    // The quiz's stats row, created empty if missing and locked
+    private QuizStat lockStat(UUID topicQuizId) {
+        quizStatRepo.ensureExists(topicQuizId);
+        return quizStatRepo.findForUpdate(topicQuizId)
+                .orElseThrow(() -> new IllegalStateException("Quiz stats row missing"));
+    }
+
+    // Rebuild under the lock taken by lockStat
+    private QuizStat rebuildLocked(QuizStat stat, String method) {
+        UUID topicQuizId = stat.getTopicQuizId();
+        quizStudentStatRepo.deleteByTopicQuizId(topicQuizId);
+        stat.setGradingMethod(method);
+
+        Delta totals = new Delta();
+        List<QuizStudentStat> studentStats = quizResponseRepo.summarizeAttempts(topicQuizId, null).stream()
+                .map(row -> {
+                    QuizStudentStat studentStat = new QuizStudentStat();
+                    studentStat.setTopicQuizId(topicQuizId);
+                    studentStat.setStudentId(row.getStudentId());
+                    copy(row, studentStat);
+                    totals.add(studentStat, method);
+                    return studentStat;
+                })
+                .toList();
+        quizStudentStatRepo.saveAll(studentStats);
+
+        stat.setAttemptCount(totals.attempts);
+        stat.setStudentCount(totals.students);
+        stat.setMarkSum(totals.markSum);
+        stat.setCountOver8(totals.over8);
+        stat.setCountOver5(totals.over5);
+        stat.setCountOver2(totals.over2);
+        stat.setCountOver0(totals.over0);
+        stat.setTimedAttemptCount(totals.timedAttempts);
+        stat.setTotalTimeSeconds(totals.timeSeconds);
+        stat.setChangeCount(stat.getChangeCount() + 1);
+        gradebookCache.columnChanged(topicQuizId);
+        return quizStatRepo.save(stat);
+    }
+
+    private static String gradingMethodOf(TopicQuiz topicQuiz) {
+        return topicQuiz.getGradingMethod() != null ? topicQuiz.getGradingMethod()
+                : QuizReportEngine.DEFAULT_GRADING_METHOD;
+    }
+
+    private static void copy(StudentStatRow row, QuizStudentStat studentStat) {
+        studentStat.setAttemptCount(row.getAttemptCount());
+        studentStat.setBestMark(valueOrZero(row.getBestMark()));
+        studentStat.setFirstMark(valueOrZero(row.getFirstMark()));
+        studentStat.setLastMark(valueOrZero(row.getLastMark()));
+        studentStat.setAvgMark(valueOrZero(row.getAvgMark()));
+        studentStat.setTimedAttemptCount(row.getTimedAttemptCount());
+        studentStat.setTotalTimeSeconds(row.getTotalTimeSeconds());
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    // Change to the quiz row caused by adding/removing one student's summary
+    private static final class Delta {
+        long attempts;
+        long students;
+        double markSum;
+        long over8;
+        long over5;
+        long over2;
+        long over0;
+        long timedAttempts;
+        long timeSeconds;
+
+        void add(QuizStudentStat studentStat, String gradingMethod) {
+            apply(studentStat, gradingMethod, 1);
+        }
+
+        void remove(QuizStudentStat studentStat, String gradingMethod) {
+            apply(studentStat, gradingMethod, -1);
+        }
+
+        private void apply(QuizStudentStat studentStat, String gradingMethod, int sign) {
+            double mark = studentStat.markFor(gradingMethod);
+            attempts += sign * studentStat.getAttemptCount();
+            students += sign;
+            markSum += sign * mark;
+            if (mark >= 8.0) {
+                over8 += sign;
+            } else if (mark >= 5.0) {
+                over5 += sign;
+            } else if (mark >= 2.0) {
+                over2 += sign;
+            } else if (mark >= 0.0) {
+                over0 += sign;
+            }
+            timedAttempts += sign * studentStat.getTimedAttemptCount();
+            timeSeconds += sign * studentStat.getTotalTimeSeconds();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package lms.coursehub.services;
+
+import jakarta.annotation.PreDestroy;
+import lms.coursehub.helpers.caches.MembershipCache;
+import lms.coursehub.helpers.exceptions.CustomException;
+import lms.coursehub.models.dtos.reports.AllAssignmentsReportDto;
+import lms.coursehub.models.dtos.reports.AllQuizzesReportDto;
+import lms.coursehub.models.dtos.reports.ReportJobDto;
+import lms.coursehub.repositories.QuizStatRepo;
+import lms.coursehub.repositories.TopicAssignmentRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs course-wide quiz/assignment reports on a small worker pool instead of
+ * the request thread.
+ *
+ * A job is kept per (course, type, start, end, bins) together with the data version
+ * it was computed at: the course content version, the roster and the change
+ * counters of the course's quiz stats / assignments. A submit with the same
+ * data version attaches to the running job or returns the finished one; any
+ * change to the course data yields a new version and so a new job. Finished
+ * jobs are dropped after a retention period.
+ *
+ * The synchronous report endpoints share these results but compute a missing
+ * one on the request thread, so they never queue behind other courses' jobs.
+ */
+@Service
+public class ReportJobService {
+
+    public static final List<String> REPORT_TYPES = List.of("quiz", "assignment");
+
+    private enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    // Bin edges as a list so keys compare by value
+    private record ReportKey(String courseId, String type, LocalDateTime start, LocalDateTime end,
+            List<Double> binEdges) {
+
+        double[] binEdgeArray() {
+            return binEdges.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+    }
+
+    private static final class ReportJob {
+        final UUID id = UUID.randomUUID();
+        final ReportKey key;
+        final String dataVersion;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile Status status = Status.PENDING;
+        volatile LocalDateTime finishedAt;
+        volatile long finishedAtMillis;
+        volatile String error;
+
+        ReportJob(ReportKey key, String dataVersion) {
+            this.key = key;
+            this.dataVersion = dataVersion;
+        }
+    }
+
+    private final TopicService topicService;
+    private final CourseVersionService courseVersionService;
+    private final MembershipCache membershipCache;
+    private final QuizStatRepo quizStatRepo;
+    private final TopicAssignmentRepo topicAssignmentRepo;
+    private final ExecutorService workers;
+    private final long retentionMillis;
+
+    private final Map<UUID, ReportJob> jobsById = new ConcurrentHashMap<>();
+    // Latest job of each report; reused while its data version is current
+    private final Map<ReportKey, ReportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    public ReportJobService(TopicService topicService, CourseVersionService courseVersionService,
+            MembershipCache membershipCache, QuizStatRepo quizStatRepo, TopicAssignmentRepo topicAssignmentRepo,
+            @Value("${coursehub.reports.jobs.workers:2}") int workers,
+            @Value("${coursehub.reports.jobs.retention-minutes:30}") long retentionMinutes) {
+        this.topicService = topicService;
+        this.courseVersionService = courseVersionService;
+        this.membershipCache = membershipCache;
+        this.quizStatRepo = quizStatRepo;
+        this.topicAssignmentRepo = topicAssignmentRepo;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workers),
+                Thread.ofVirtual().name("report-job-", 0).factory());
+        this.retentionMillis = retentionMinutes * 60_000;
+    }
+
+    /**
+     * Start a report job, or return the running / finished job computed for the
+     * same report at the current data version
+     */
+    public ReportJobDto submit(String courseId, String type, LocalDateTime start, LocalDateTime end,
+            double[] binEdges) {
+        return toDto(submitJob(courseId, type, start, end, binEdges));
+    }
+
+    public ReportJobDto getJob(String courseId, UUID jobId) {
+        return toDto(findJob(courseId, jobId));
+    }
+
+    // Result of a finished job; AllQuizzesReportDto or AllAssignmentsReportDto by job type
+    public Object getResult(String courseId, UUID jobId) {
+        ReportJob job = findJob(courseId, jobId);
+        if (job.status == Status.PENDING || job.status == Status.RUNNING) {
+            throw new CustomException("Report is not ready yet", HttpStatus.CONFLICT);
+        }
+        return await(job);
+    }
+
+    // Synchronous variants for the legacy report endpoints; they share jobs and results
+    public AllQuizzesReportDto getQuizzesReport(String courseId, LocalDateTime start, LocalDateTime end,
+            double[] binEdges) {
+        return (AllQuizzesReportDto) computeNow(courseId, "quiz", start, end, binEdges);
+    }
+
+    public AllAssignmentsReportDto getAssignmentsReport(String courseId, LocalDateTime start, LocalDateTime end,
+            double[] binEdges) {
+        return (AllAssignmentsReportDto) computeNow(courseId, "assignment", start, end, binEdges);
+    }
+
+    private ReportJob submitJob(String courseId, String type, LocalDateTime start, LocalDateTime end,
+            double[] binEdges) {
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = currentOrNewJob(courseId, type, start, end, binEdges, created);
+        if (created[0] != null) {
+            workers.execute(() -> run(job));
+        }
+        return job;
+    }
+
+    // A current result (or the job computing it), else the report computed on this thread
+    private Object computeNow(String courseId, String type, LocalDateTime start, LocalDateTime end,
+            double[] binEdges) {
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = currentOrNewJob(courseId, type, start, end, binEdges, created);
+        if (created[0] != null) {
+            run(job);
+        }
+        return await(job);
+    }
+
+    // The job of the report at the current data version; a new one is registered (and put in created[0]) if none
+    private ReportJob currentOrNewJob(String courseId, String type, LocalDateTime start, LocalDateTime end,
+            double[] binEdges, ReportJob[] created) {
+        if (type == null || !REPORT_TYPES.contains(type.toLowerCase())) {
+            throw new CustomException("Report type must be one of " + REPORT_TYPES, HttpStatus.BAD_REQUEST);
+        }
+        ReportKey key = new ReportKey(courseId, type.toLowerCase(), start, end,
+                Arrays.stream(binEdges).boxed().toList());
+        String dataVersion = dataVersion(courseId, key.type());
+
+        evictExpired();
+        return jobsByKey.compute(key, (k, current) -> {
+            if (current != null && current.status != Status.FAILED && current.dataVersion.equals(dataVersion)) {
+                return current;
+            }
+            ReportJob job = new ReportJob(k, dataVersion);
+            jobsById.put(job.id, job);
+            created[0] = job;
+            return job;
+        });
+    }
+
+    private void run(ReportJob job) {
+        job.status = Status.RUNNING;
+        ReportKey key = job.key;
+        Object report = null;
+        Throwable failure = null;
+        try {
+            report = "quiz".equals(key.type())
+                    ? topicService.getAllQuizzesReport(key.courseId(), key.start(), key.end(), key.binEdgeArray())
+                    : topicService.getAllAssignmentsReport(key.courseId(), key.start(), key.end(),
+                            key.binEdgeArray());
+        } catch (Throwable e) {
+            failure = e;
+            if (e instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            // Always completed, so waiters never hang; finish time first, so a poller never sees a
+            // finished job without one
+            job.finishedAt = LocalDateTime.now();
+            job.finishedAtMillis = System.currentTimeMillis();
+            if (failure == null) {
+                job.result.complete(report);
+                job.status = Status.DONE;
+            } else {
+                job.error = failure instanceof CustomException ? failure.getMessage() : "Report generation failed";
+                job.result.completeExceptionally(failure);
+                job.status = Status.FAILED;
+            }
+        }
+    }
+
+    /**
+     * Everything the report is computed from, as a comparable token: content
+     * version (topics, grading methods), enrolled students and the change
+     * counters of the course's quiz stats or assignment responses
+     */
+    private String dataVersion(String courseId, String type) {
+        long contentVersion = courseVersionService.getVersion(courseId);
+        int rosterHash = membershipCache.getStudents(courseId).hashCode();
+        List<Object[]> summary = "quiz".equals(type)
+                ? quizStatRepo.summarizeByCourseId(courseId)
+                : topicAssignmentRepo.summarizeResponseVersionsByCourseId(courseId);
+        return contentVersion + "/" + rosterHash + "/" + (summary.isEmpty() ? "" : Arrays.toString(summary.get(0)));
+    }
+
+    private ReportJob findJob(String courseId, UUID jobId) {
+        ReportJob job = jobsById.get(jobId);
+        if (job == null || !job.key.courseId().equals(courseId)) {
+            throw new CustomException("Report job not found", HttpStatus.NOT_FOUND);
+        }
+        return job;
+    }
+
+    private static Object await(ReportJob job) {
+        try {
+            return job.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CustomException customException) {
+                throw customException;
+            }
+            throw new CustomException("Report generation failed", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobsById.values().removeIf(job -> {
+            boolean expired = job.finishedAtMillis != 0 && job.finishedAtMillis < cutoff;
+            if (expired) {
+                jobsByKey.remove(job.key, job);
+            }
+            return expired;
+        });
+    }
+
+    private static ReportJobDto toDto(ReportJob job) {
+        ReportKey key = job.key;
+        return new ReportJobDto(job.id, key.courseId(), key.type(), key.start(), key.end(), job.status.name(),
+                job.submittedAt, job.finishedAt, job.error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
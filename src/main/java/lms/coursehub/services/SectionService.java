@@ -23,6 +23,7 @@ public class SectionService {
     private final SectionRepo sectionRepo;
     private final SectionMapper sectionMapper;
     private final CourseService courseService;
+    private final CourseVersionService courseVersionService;
 
     @Transactional
     public SectionResponseDto createSection(CreateSectionRequest request) {
@@ -30,6 +31,7 @@ public class SectionService {
         Course course = courseService.findCourseById(request.getCourseId());
         section.setCourse(course);
         section = sectionRepo.save(section);
+        courseVersionService.bump(course.getId());
         return sectionMapper.toResponseDto(section);
     }
 
@@ -58,6 +60,7 @@ public class SectionService {
             existingSection.setDescription(request.getDescription());
 
         existingSection = sectionRepo.save(existingSection);
+        courseVersionService.bump(existingSection.getCourse().getId());
         return sectionMapper.toResponseDto(existingSection);
     }
 
@@ -67,6 +70,7 @@ public class SectionService {
         Section section = sectionRepo.findById(sectionId)
                 .orElseThrow(() -> new CustomException("Section not found", HttpStatus.NOT_FOUND));
         sectionRepo.delete(section);
+        courseVersionService.bump(section.getCourse().getId());
     }
 
     // GET /course/{courseId}/sections - Get all sections for a course
@@ -7,16 +7,28 @@ import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import lms.coursehub.helpers.caches.AnswerKeyCache;
+import lms.coursehub.helpers.caches.GradebookCache;
+import lms.coursehub.helpers.caches.MembershipCache;
+import lms.coursehub.helpers.caches.WorkCalendarIndex;
 import lms.coursehub.helpers.exceptions.CustomException;
 import lms.coursehub.helpers.mapstructs.TopicMapper;
+import lms.coursehub.helpers.utils.MarkHistogram;
+import lms.coursehub.helpers.utils.QuantileSketch;
+import lms.coursehub.helpers.utils.ReportExecutor;
+import lms.coursehub.helpers.utils.TopicCursor;
 import lms.coursehub.models.dtos.reports.AllAssignmentsReportDto;
 import lms.coursehub.models.dtos.reports.AllQuizzesReportDto;
+import lms.coursehub.models.dtos.reports.MarkPercentilesDto;
 import lms.coursehub.models.dtos.reports.SingleAssignmentReportDto;
 import lms.coursehub.models.dtos.reports.SingleQuizReportDto;
 import lms.coursehub.models.dtos.topic.*;
+import lms.coursehub.models.dtos.user.UserResponseDto;
 import lms.coursehub.models.entities.*;
 import lms.coursehub.repositories.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +37,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,16 +56,29 @@ public class TopicService {
     private final SectionRepo sectionRepo;
     private final CourseRepo courseRepo;
     private final UserService userService;
-    private final EnrollmentDetailRepo enrollmentDetailRepo;
-    private final QuizResponseRepo quizResponseRepo;
+    private final UserRepo userRepo;
+    private final MembershipCache membershipCache;
+    private final QuizReportEngine quizReportEngine;
+    private final QuizStatsService quizStatsService;
     private final AssignmentResponseRepo assignmentResponseRepo;
     private final QuestionRepo questionRepo;
     private final NotificationService notificationService;
     private final MeetingHistoryRepo meetingHistoryRepo;
+    private final CourseVersionService courseVersionService;
+    private final WorkCalendarIndex workCalendarIndex;
+    private final ReportExecutor reportExecutor;
+    private final GradebookCache gradebookCache;
+    private final AnswerKeyCache answerKeyCache;
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${coursehub.pagination.topics.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${coursehub.pagination.topics.max-page-size:200}")
+    private int maxPageSize;
+
     private final ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new ParameterNamesModule())
             .registerModule(new Jdk8Module())
@@ -93,6 +119,8 @@ public class TopicService {
             response.setSectionId(topic.getSection().getId());
             response.setData(dataJson);
 
+            courseVersionService.bump(courseId);
+            workCalendarIndex.invalidate(courseId);
             notifyStudentsAboutNewTopic(topic);
             return response;
 
@@ -101,8 +129,62 @@ public class TopicService {
         }
     }
 
+    // POST /course/{courseId}/topic/bulk
+    @Transactional
+    public List<TopicResponseDto> createTopics(String courseId, BulkCreateTopicRequest request) {
+        List<CreateTopicRequest> items = request.getTopics();
+
+        // All target sections in one query
+        Set<UUID> sectionIds = items.stream().map(CreateTopicRequest::getSectionId).collect(Collectors.toSet());
+        Map<UUID, Section> sections = sectionRepo.findAllWithCourseByIdIn(sectionIds).stream()
+                .collect(Collectors.toMap(Section::getId, section -> section));
+        for (UUID sectionId : sectionIds) {
+            Section section = sections.get(sectionId);
+            if (section == null) {
+                throw new CustomException("Section not found: " + sectionId, HttpStatus.NOT_FOUND);
+            }
+            if (!section.getCourse().getId().equals(courseId)) {
+                throw new CustomException("Section does not belong to the specified course", HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        // Topic ids are generated in memory, so nothing is flushed per topic: the topic and
+        // subtype inserts are ordered and sent in JDBC batches at commit
+        List<Topic> topics = new ArrayList<>(items.size());
+        List<TopicResponseDto> responses = new ArrayList<>(items.size());
+        for (CreateTopicRequest item : items) {
+            Topic topic = topicMapper.toEntity(item);
+            topic.setSection(sections.get(item.getSectionId()));
+            entityManager.persist(topic);
+
+            String dataJson;
+            try {
+                dataJson = createTopicSpecificData(topic, item.getType(), item.getData());
+            } catch (CustomException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CustomException("Failed to create topic \"" + item.getTitle() + "\": " + e.getMessage(),
+                        HttpStatus.BAD_REQUEST);
+            }
+
+            TopicResponseDto response = new TopicResponseDto();
+            response.setId(topic.getId());
+            response.setTitle(topic.getTitle());
+            response.setType(topic.getType());
+            response.setSectionId(item.getSectionId());
+            response.setData(dataJson);
+            topics.add(topic);
+            responses.add(response);
+        }
+
+        courseVersionService.bump(courseId);
+        workCalendarIndex.invalidate(courseId);
+        notifyStudentsAboutNewTopics(sections.values().iterator().next().getCourse(), topics);
+        return responses;
+    }
+
     private void notifyStudentsAboutNewTopic(Topic topic) {
-        if (topic == null || notificationService == null) {
+        if (topic == null) {
             return;
         }
 
@@ -110,27 +192,47 @@ public class TopicService {
         if (section == null || section.getCourse() == null) {
             return;
         }
+        notifyStudentsAboutNewTopics(section.getCourse(), List.of(topic));
+    }
 
-        Course course = section.getCourse();
-        List<EnrollmentDetail> enrollments = enrollmentDetailRepo
-                .findByCourseIdAndJoinDateBefore(course.getId(), LocalDateTime.now());
-        if (enrollments == null || enrollments.isEmpty()) {
+    // One notification per student, however many topics were posted
+    private void notifyStudentsAboutNewTopics(Course course, List<Topic> topics) {
+        if (notificationService == null || topics.isEmpty()) {
             return;
         }
 
         User instructor = course.getCreator();
+        List<UUID> studentIds = membershipCache.getStudentIdsJoinedBefore(course.getId(), LocalDateTime.now()).stream()
+                .filter(studentId -> instructor == null || !studentId.equals(instructor.getId()))
+                .toList();
+        if (studentIds.isEmpty()) {
+            return;
+        }
+
         String courseTitle = course.getTitle() != null ? course.getTitle() : "your course";
-        String topicTitle = topic.getTitle() != null ? topic.getTitle() : "a new topic";
-        String topicType = topic.getType() != null ? topic.getType().toLowerCase(Locale.ROOT) : "topic";
         String posterName = instructor != null ? instructor.getUsername() : "Your instructor";
-        String title = "New " + topicType + " in " + courseTitle;
-        String message = String.format("%s just posted \"%s\".", posterName, topicTitle);
+        String title;
+        String message;
+        if (topics.size() == 1) {
+            Topic topic = topics.get(0);
+            String topicTitle = topic.getTitle() != null ? topic.getTitle() : "a new topic";
+            String topicType = topic.getType() != null ? topic.getType().toLowerCase(Locale.ROOT) : "topic";
+            title = "New " + topicType + " in " + courseTitle;
+            message = String.format("%s just posted \"%s\".", posterName, topicTitle);
+        } else {
+            title = topics.size() + " new topics in " + courseTitle;
+            String sampleTitle = topics.stream()
+                    .map(Topic::getTitle)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+            message = sampleTitle != null
+                    ? String.format("%s just posted %d topics, including \"%s\".", posterName, topics.size(),
+                            sampleTitle)
+                    : String.format("%s just posted %d topics.", posterName, topics.size());
+        }
 
-        enrollments.stream()
-                .map(EnrollmentDetail::getStudent)
-                .filter(Objects::nonNull)
-                .filter(student -> instructor == null || !student.getId().equals(instructor.getId()))
-                .forEach(student -> notificationService.notifyUser(student.getId(), title, message));
+        notificationService.notifyUsers(studentIds, title, message);
     }
 
     private String createTopicSpecificData(Topic topic, String type, String jsonData) throws Exception {
@@ -335,8 +437,14 @@ public class TopicService {
         topicQuiz.setTimeLimit(quizData.getTimeLimit() != null ? quizData.getTimeLimit() : 0);
         topicQuiz.setTimeLimitUnit(quizData.getTimeLimitUnit());
         topicQuiz.setGradeToPass(quizData.getGradeToPass());
+        boolean gradingMethodChanged = topicQuiz.getId() != null
+                && !Objects.equals(topicQuiz.getGradingMethod(), quizData.getGradingMethod());
         topicQuiz.setGradingMethod(quizData.getGradingMethod());
         topicQuiz.setAttemptAllowed(quizData.getAttemptAllowed());
+        if (gradingMethodChanged) {
+            // Student marks depend on the grading method
+            quizStatsService.rebuild(topicQuiz.getId(), quizData.getGradingMethod());
+        }
 
         // Update questions if provided
         if (quizData.getQuestions() != null) {
@@ -353,6 +461,9 @@ public class TopicService {
                 // Clear questions if empty list provided
                 topicQuiz.getQuestions().clear();
             }
+            if (topicQuiz.getId() != null) {
+                answerKeyCache.quizChanged(topicQuiz.getId());
+            }
         }
 
         TopicQuiz savedQuiz = topicQuizRepo.save(topicQuiz);
@@ -535,6 +646,12 @@ public class TopicService {
     // GET /course/{courseId}/topic/{id}
     @Transactional(readOnly = true)
     public TopicResponseDto getTopic(String courseId, UUID topicId) {
+        return toLegacyResponse(getTypedTopic(courseId, topicId));
+    }
+
+    // GET /v2/course/{courseId}/topic/{id}
+    @Transactional(readOnly = true)
+    public TypedTopicResponseDto getTypedTopic(String courseId, UUID topicId) {
         Topic topic = topicRepo.findByIdWithSectionAndCourse(topicId)
                 .orElseThrow(() -> new CustomException("Topic not found", HttpStatus.NOT_FOUND));
 
@@ -543,7 +660,7 @@ public class TopicService {
             throw new CustomException("Topic does not belong to the specified course", HttpStatus.BAD_REQUEST);
         }
 
-        return buildTopicResponse(topic);
+        return buildTypedTopicResponses(List.of(topic)).get(0);
     } // PUT /course/{courseId}/topic/{id}
 
     @Transactional
@@ -588,6 +705,8 @@ public class TopicService {
             response.setSectionId(existingTopic.getSection().getId());
             response.setData(dataJson);
 
+            courseVersionService.bump(courseId);
+            workCalendarIndex.invalidate(courseId);
             return response;
 
         } catch (Exception e) {
@@ -608,35 +727,52 @@ public class TopicService {
 
         // Delete type-specific data first (handled by cascade, but being explicit)
         deleteTopicSpecificData(topic, topic.getType());
+        if ("quiz".equalsIgnoreCase(topic.getType())) {
+            quizStatsService.delete(topicId);
+        }
 
         // Delete the base topic (cascade will handle related entities)
         topicRepo.delete(topic);
+        courseVersionService.bump(courseId);
+        workCalendarIndex.invalidate(courseId);
     }
 
     // GET /course/{courseId}/topics - Get all topics for a course
     @Transactional(readOnly = true)
     public List<TopicResponseDto> getAllTopicsForCourse(String courseId) {
-        // You might want to add a custom query to TopicRepo for this
-        // For now, we'll fetch through sections
+        return getAllTypedTopicsForCourse(courseId).stream()
+                .map(this::toLegacyResponse)
+                .toList();
+    }
+
+    // Get all topics for a course with typed data (unpaginated)
+    @Transactional(readOnly = true)
+    public List<TypedTopicResponseDto> getAllTypedTopicsForCourse(String courseId) {
+        // Section, quiz and assignment rows come back with the topics; the remaining
+        // subtype tables are read in bulk by buildTypedTopicResponses
         List<Topic> topics = topicRepo.findBySectionCourseIdOrderBySectionPositionAscTitle(courseId);
 
-        return topics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTypedTopicResponses(topics);
     }
 
     // GET /topic/section/{sectionId} - Get all topics for a section
     @Transactional(readOnly = true)
     public List<TopicResponseDto> getAllTopicsForSection(UUID sectionId) {
+        return getAllTypedTopicsForSection(sectionId).stream()
+                .map(this::toLegacyResponse)
+                .toList();
+    }
+
+    // GET /v2/topic/section/{sectionId} - Get all topics for a section with typed data
+    @Transactional(readOnly = true)
+    public List<TypedTopicResponseDto> getAllTypedTopicsForSection(UUID sectionId) {
         // Validate section exists
         sectionRepo.findById(sectionId)
                 .orElseThrow(() -> new CustomException("Section not found", HttpStatus.NOT_FOUND));
 
         List<Topic> topics = topicRepo.findBySectionIdOrderByTitle(sectionId);
 
-        return topics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTypedTopicResponses(topics);
     }
 
     private void deleteTopicSpecificData(Topic topic, String type) {
@@ -663,101 +799,180 @@ public class TopicService {
         }
     }
 
-    private TopicResponseDto buildTopicResponse(Topic topic) {
-        try {
-            String dataJson = getTopicSpecificData(topic);
-
-            TopicResponseDto response = new TopicResponseDto();
-            response.setId(topic.getId());
-            response.setTitle(topic.getTitle());
-            response.setType(topic.getType());
-            response.setSectionId(topic.getSection().getId());
-            response.setData(dataJson);
+    private List<TopicResponseDto> buildTopicResponses(List<Topic> topics) {
+        return buildTypedTopicResponses(topics).stream()
+                .map(this::toLegacyResponse)
+                .toList();
+    }
 
-            return response;
+    // Legacy (v1) representation: the typed payload is written as a JSON string
+    private TopicResponseDto toLegacyResponse(TypedTopicResponseDto typed) {
+        TopicResponseDto response = new TopicResponseDto();
+        response.setId(typed.getId());
+        response.setTitle(typed.getTitle());
+        response.setType(typed.getType());
+        response.setSectionId(typed.getSectionId());
+        try {
+            response.setData(typed.getData() != null ? objectMapper.writeValueAsString(typed.getData()) : null);
         } catch (Exception e) {
             // Log the error but don't fail the entire response
-            TopicResponseDto response = new TopicResponseDto();
-            response.setId(topic.getId());
-            response.setTitle(topic.getTitle());
-            response.setType(topic.getType());
-            response.setSectionId(topic.getSection().getId());
             response.setData(null);
-            return response;
         }
+        return response;
     }
 
-    private String getTopicSpecificData(Topic topic) throws Exception {
-        switch (topic.getType().toLowerCase()) {
+    /**
+     * Hydrate topics in bulk: topics are grouped by type and every subtype table is
+     * read once with an IN (...) query, so the number of queries does not depend on
+     * the number of topics
+     */
+    private List<TypedTopicResponseDto> buildTypedTopicResponses(List<Topic> topics) {
+        if (topics.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<UUID>> topicIdsByType = topics.stream()
+                .filter(topic -> topic.getType() != null)
+                .collect(Collectors.groupingBy(
+                        topic -> topic.getType().toLowerCase(),
+                        Collectors.mapping(Topic::getId, Collectors.toList())));
+
+        Map<UUID, TopicDataDto> dataByTopicId = new HashMap<>();
+        topicIdsByType.forEach((type, topicIds) -> dataByTopicId.putAll(loadTopicDataDtos(type, topicIds)));
+
+        return topics.stream()
+                .map(topic -> {
+                    TypedTopicResponseDto response = new TypedTopicResponseDto();
+                    response.setId(topic.getId());
+                    response.setTitle(topic.getTitle());
+                    response.setType(topic.getType());
+                    response.setSectionId(topic.getSection().getId());
+                    response.setData(dataByTopicId.get(topic.getId()));
+                    return response;
+                })
+                .toList();
+    }
+
+    // Load the type-specific DTOs of the given topics, keyed by topic id
+    private Map<UUID, TopicDataDto> loadTopicDataDtos(String type, Collection<UUID> topicIds) {
+        Map<UUID, TopicDataDto> dataByTopicId = new HashMap<>();
+        switch (type) {
             case "quiz":
-                return topicQuizRepo.findById(topic.getId())
-                        .map(quiz -> {
-                            try {
-                                QuizDataDto dto = topicMapper.toQuizDataDto(quiz);
-                                return objectMapper.writeValueAsString(dto);
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        })
-                        .orElse(null);
+                // Questions are fetched in the same query
+                topicQuizRepo.findAllWithQuestionsByIdIn(topicIds)
+                        .forEach(quiz -> dataByTopicId.put(quiz.getId(), topicMapper.toQuizDataDto(quiz)));
+                break;
             case "assignment":
-                return topicAssignmentRepo.findById(topic.getId())
-                        .map(assignment -> {
-                            try {
-                                AssignmentDataDto dto = topicMapper.toAssignmentDataDto(assignment);
-                                return objectMapper.writeValueAsString(dto);
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        })
-                        .orElse(null);
+                topicAssignmentRepo.findAllWithFilesByIdIn(topicIds)
+                        .forEach(assignment -> dataByTopicId.put(assignment.getId(),
+                                topicMapper.toAssignmentDataDto(assignment)));
+                break;
             case "file":
-                return topicFileRepo.findById(topic.getId())
-                        .map(file -> {
-                            try {
-                                FileDataDto dto = topicMapper.toFileDataDto(file);
-                                return objectMapper.writeValueAsString(dto);
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        })
-                        .orElse(null);
+                topicFileRepo.findAllWithFileByIdIn(topicIds)
+                        .forEach(file -> dataByTopicId.put(file.getId(), topicMapper.toFileDataDto(file)));
+                break;
             case "link":
-                return topicLinkRepo.findById(topic.getId())
-                        .map(link -> {
-                            try {
-                                LinkDataDto dto = topicMapper.toLinkDataDto(link);
-                                return objectMapper.writeValueAsString(dto);
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        })
-                        .orElse(null);
+                topicLinkRepo.findAllById(topicIds)
+                        .forEach(link -> dataByTopicId.put(link.getId(), topicMapper.toLinkDataDto(link)));
+                break;
             case "page":
-                return topicPageRepo.findById(topic.getId())
-                        .map(page -> {
-                            try {
-                                PageDataDto dto = topicMapper.toPageDataDto(page);
-                                return objectMapper.writeValueAsString(dto);
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        })
-                        .orElse(null);
+                topicPageRepo.findAllById(topicIds)
+                        .forEach(page -> dataByTopicId.put(page.getId(), topicMapper.toPageDataDto(page)));
+                break;
             case "meeting":
-                return topicMeetingRepo.findById(topic.getId())
-                        .map(meeting -> {
-                            try {
-                                MeetingDataDto dto = topicMapper.toMeetingDataDto(meeting);
-                                return objectMapper.writeValueAsString(dto);
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        })
-                        .orElse(null);
+                topicMeetingRepo.findAllById(topicIds)
+                        .forEach(meeting -> dataByTopicId.put(meeting.getId(), topicMapper.toMeetingDataDto(meeting)));
+                break;
             default:
-                return null;
+                break;
+        }
+        return dataByTopicId;
+    }
+
+    private String getTopicSpecificData(Topic topic) throws Exception {
+        TopicDataDto data = loadTopicDataDtos(topic.getType().toLowerCase(), List.of(topic.getId()))
+                .get(topic.getId());
+        return data != null ? objectMapper.writeValueAsString(data) : null;
+    }
+
+    // ================== KEYSET PAGINATION ==================
+
+    // GET /v2/course/{courseId}/topics?cursor=&limit=
+    @Transactional(readOnly = true)
+    public TopicPageDto<TypedTopicResponseDto> getTypedTopicPageForCourse(String courseId, String cursor,
+            Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        TopicCursor after = TopicCursor.decode(cursor);
+
+        // One extra row tells whether another page exists
+        List<Topic> topics = seekPage(after, pageSize + 1,
+                pageLimit -> topicRepo.findPageInSectionOfCourse(courseId, after.position(), after.title(), after.id(),
+                        pageLimit),
+                pageLimit -> topicRepo.findPageAfterSectionOfCourse(courseId, after.position(), pageLimit));
+
+        return toTopicPage(topics, pageSize);
+    }
+
+    // Quizzes / assignments of all courses the current user is enrolled in, one page at a time
+    @Transactional(readOnly = true)
+    public TopicPageDto<TypedTopicResponseDto> getTypedTopicPageOfUser(String type, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        TopicCursor after = TopicCursor.decode(cursor);
+
+        List<String> enrolledCourseIds = new ArrayList<>(
+                membershipCache.getCourseIds(userService.getCurrentUser().getId()));
+        if (enrolledCourseIds.isEmpty()) {
+            return new TopicPageDto<>(List.of(), null);
         }
+
+        List<Topic> topics = seekPage(after, pageSize + 1,
+                pageLimit -> topicRepo.findPageInSectionOfCoursesAndType(enrolledCourseIds, type, after.position(),
+                        after.title(), after.id(), pageLimit),
+                pageLimit -> topicRepo.findPageAfterSectionOfCoursesAndType(enrolledCourseIds, type, after.position(),
+                        pageLimit));
+
+        return toTopicPage(topics, pageSize);
+    }
+
+    // v1 shape of a page: the typed payloads are written as JSON strings
+    public TopicPageDto<TopicResponseDto> toLegacyPage(TopicPageDto<TypedTopicResponseDto> page) {
+        List<TopicResponseDto> items = page.getItems().stream()
+                .map(this::toLegacyResponse)
+                .toList();
+        return new TopicPageDto<>(items, page.getNextCursor());
+    }
+
+    // Up to count topics after the cursor: the rest of its section first, then the following sections
+    private static List<Topic> seekPage(TopicCursor after, int count, Function<Limit, List<Topic>> inSection,
+            Function<Limit, List<Topic>> afterSection) {
+        List<Topic> topics = new ArrayList<>(count);
+        if (after != TopicCursor.FIRST) {
+            topics.addAll(inSection.apply(Limit.of(count)));
+        }
+        if (topics.size() < count) {
+            topics.addAll(afterSection.apply(Limit.of(count - topics.size())));
+        }
+        return topics;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new CustomException("Limit must be positive", HttpStatus.BAD_REQUEST);
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private TopicPageDto<TypedTopicResponseDto> toTopicPage(List<Topic> topics, int pageSize) {
+        String nextCursor = null;
+        if (topics.size() > pageSize) {
+            topics = topics.subList(0, pageSize);
+            Topic last = topics.get(pageSize - 1);
+            nextCursor = new TopicCursor(last.getSection().getPosition(), last.getTitle(), last.getId()).encode();
+        }
+        return new TopicPageDto<>(buildTypedTopicResponses(topics), nextCursor);
     }
 
     // Additional aggregate endpoints (across courses)
@@ -766,27 +981,21 @@ public class TopicService {
     @Transactional(readOnly = true)
     public List<TopicResponseDto> getAllQuizzesOfCourse(String courseId) {
         List<Topic> quizTopics = topicRepo.findBySectionCourseIdAndTypeOrderByTitle(courseId, "quiz");
-        return quizTopics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTopicResponses(quizTopics);
     }
 
     // Get all assignments for a specific course
     @Transactional(readOnly = true)
     public List<TopicResponseDto> getAllAssignmentsOfCourse(String courseId) {
         List<Topic> assignmentTopics = topicRepo.findBySectionCourseIdAndTypeOrderByTitle(courseId, "assignment");
-        return assignmentTopics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTopicResponses(assignmentTopics);
     }
 
     // Get all meetings for a specific course
     @Transactional(readOnly = true)
     public List<TopicResponseDto> getAllMeetingsOfCourse(String courseId) {
         List<Topic> meetingTopics = topicRepo.findBySectionCourseIdAndTypeOrderByTitle(courseId, "meeting");
-        return meetingTopics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTopicResponses(meetingTopics);
     }
 
     // Get all works (assignments + quizzes + meetings) for a specific course
@@ -794,16 +1003,15 @@ public class TopicService {
     public List<TopicResponseDto> getAllWorksOfCourse(String courseId) {
         List<Topic> workTopics = topicRepo.findBySectionCourseIdAndTypeInOrderByTitle(courseId,
                 List.of("quiz", "assignment", "meeting"));
-        return workTopics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTopicResponses(workTopics);
     }
 
     // Get all quizzes for current authenticated user (from all enrolled courses)
     @Transactional(readOnly = true)
     public List<TopicResponseDto> getAllQuizzesOfUser() {
         // Get all course IDs where the current user is enrolled
-        List<String> enrolledCourseIds = topicRepo.findEnrolledCourseIdsByUserId(userService.getCurrentUser().getId());
+        List<String> enrolledCourseIds = new ArrayList<>(
+                membershipCache.getCourseIds(userService.getCurrentUser().getId()));
 
         if (enrolledCourseIds.isEmpty()) {
             return List.of();
@@ -811,9 +1019,7 @@ public class TopicService {
 
         // Get all quizzes from those courses
         List<Topic> quizTopics = topicRepo.findBySectionCourseIdInAndTypeOrderByTitle(enrolledCourseIds, "quiz");
-        return quizTopics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTopicResponses(quizTopics);
     }
 
     // Get all assignments for current authenticated user (from all enrolled
@@ -821,7 +1027,8 @@ public class TopicService {
     @Transactional(readOnly = true)
     public List<TopicResponseDto> getAllAssignmentsOfUser() {
         // Get all course IDs where the current user is enrolled
-        List<String> enrolledCourseIds = topicRepo.findEnrolledCourseIdsByUserId(userService.getCurrentUser().getId());
+        List<String> enrolledCourseIds = new ArrayList<>(
+                membershipCache.getCourseIds(userService.getCurrentUser().getId()));
 
         if (enrolledCourseIds.isEmpty()) {
             return List.of();
@@ -830,9 +1037,7 @@ public class TopicService {
         // Get all assignments from those courses
         List<Topic> assignmentTopics = topicRepo.findBySectionCourseIdInAndTypeOrderByTitle(enrolledCourseIds,
                 "assignment");
-        return assignmentTopics.stream()
-                .map(this::buildTopicResponse)
-                .toList();
+        return buildTopicResponses(assignmentTopics);
     }
 
     // ================== REPORT GENERATION METHODS ==================
@@ -841,7 +1046,8 @@ public class TopicService {
      * Generate comprehensive quiz report for analytics
      */
     @Transactional(readOnly = true)
-    public lms.coursehub.models.dtos.reports.SingleQuizReportDto getSingleQuizReport(String courseId, UUID topicId) {
+    public lms.coursehub.models.dtos.reports.SingleQuizReportDto getSingleQuizReport(String courseId, UUID topicId,
+            double[] binEdges) {
         // Fetch topic and validate
         Topic topic = topicRepo.findByIdWithSectionAndCourse(topicId)
                 .orElseThrow(() -> new CustomException("Topic not found", HttpStatus.NOT_FOUND));
@@ -861,56 +1067,76 @@ public class TopicService {
         // Get eligible students (enrolled before quiz close date)
         LocalDateTime closeDate = topicQuiz.getClose() != null ? topicQuiz.getClose()
                 : LocalDateTime.of(3000, 12, 31, 23, 59, 59);
-        List<EnrollmentDetail> eligibleEnrollments = enrollmentDetailRepo.findByCourseIdAndJoinDateBefore(courseId,
-                closeDate);
+        List<User> eligibleStudents = userRepo.findAllById(
+                membershipCache.getStudentIdsJoinedBefore(courseId, closeDate));
 
-        // Get all quiz responses
-        List<QuizResponse> quizResponses = quizResponseRepo.findByTopicQuizId(topicId);
+        return buildQuizReport(topic.getTitle(), topicQuiz, eligibleStudents, binEdges);
+    }
 
-        // Calculate student marks using the quiz's grading method
-        Map<UUID, Double> studentMarks = calculateStudentMarks(quizResponses, topicQuiz.getGradingMethod());
+    // Quiz report from an already loaded quiz (questions included) and its eligible students
+    private SingleQuizReportDto buildQuizReport(String title, TopicQuiz topicQuiz, List<User> eligibleStudents,
+            double[] binEdges) {
+        // Per-student marks (quiz's grading method) and aggregates from the quiz stats
+        QuizReportEngine.QuizMarks quizMarks = quizReportEngine.computeMarks(topicQuiz.getId(),
+                topicQuiz.getGradingMethod());
+        Map<UUID, Double> studentMarks = quizMarks.studentMarks();
 
         // Build report
         lms.coursehub.models.dtos.reports.SingleQuizReportDto report = new lms.coursehub.models.dtos.reports.SingleQuizReportDto();
-        report.setName(topic.getTitle());
-        report.setStudents(eligibleEnrollments.stream()
-                .map(e -> topicMapper.toUserDto(e.getStudent()))
-                .toList());
-
-        // Create student info list with marks
-        List<lms.coursehub.models.dtos.reports.SingleQuizReportDto.StudentInfoAndMark> studentInfoList = createStudentInfoList(
-                eligibleEnrollments, studentMarks);
+        report.setName(title);
+
+        // One pass over the students: rows, report bands and the requested histogram
+        MarkHistogram histogram = new MarkHistogram(binEdges);
+        QuantileSketch sketch = new QuantileSketch();
+        List<UserResponseDto> students = new ArrayList<>(eligibleStudents.size());
+        List<SingleQuizReportDto.StudentInfoAndMark> studentInfoList = new ArrayList<>(eligibleStudents.size());
+        List<List<SingleQuizReportDto.StudentInfoAndMark>> bands = newBandLists();
+        List<SingleQuizReportDto.StudentInfoAndMark> noResponse = new ArrayList<>();
+        for (User student : eligibleStudents) {
+            SingleQuizReportDto.StudentInfoAndMark info = new SingleQuizReportDto.StudentInfoAndMark();
+            info.setStudent(topicMapper.toUserDto(student));
+            students.add(info.getStudent());
+
+            Double mark = studentMarks.get(student.getId());
+            if (mark != null) {
+                // Note: responseId is tricky with multiple attempts - leaving null for now
+                info.setMark(mark);
+                info.setSubmitted(true);
+                histogram.add(mark);
+                sketch.add(mark);
+                addToBand(bands, mark, info);
+            } else {
+                info.setMark(0.0);
+                info.setSubmitted(false);
+                histogram.addNoResponse();
+                noResponse.add(info);
+            }
+            studentInfoList.add(info);
+        }
 
+        report.setStudents(students);
         report.setStudentWithMark(studentInfoList);
-        report.setStudentWithMarkOver8(filterByMark(studentInfoList, 8.0, 10.0));
-        report.setStudentWithMarkOver5(filterByMark(studentInfoList, 5.0, 8.0));
-        report.setStudentWithMarkOver2(filterByMark(studentInfoList, 2.0, 5.0));
-        report.setStudentWithMarkOver0(filterByMark(studentInfoList, 0.0, 2.0));
-        report.setStudentWithNoResponse(studentInfoList.stream()
-                .filter(s -> !s.getSubmitted())
-                .toList());
+        report.setStudentWithMarkOver8(bands.get(3));
+        report.setStudentWithMarkOver5(bands.get(2));
+        report.setStudentWithMarkOver2(bands.get(1));
+        report.setStudentWithMarkOver0(bands.get(0));
+        report.setStudentWithNoResponse(noResponse);
 
         // Calculate statistics
-        report.setMarkDistributionCount(calculateMarkDistribution(studentMarks, eligibleEnrollments.size()));
+        report.setMarkHistogram(histogram);
+        report.setMarkDistributionCount(histogram.toDistribution());
+        report.setMarkSketch(sketch);
+        report.setMarkPercentiles(toPercentiles(sketch));
         report.setQuestionCount(topicQuiz.getQuestions().size());
         report.setMaxDefaultMark(topicQuiz.getQuestions().stream()
                 .mapToDouble(q -> q.getDefaultMark().doubleValue())
                 .sum());
-        report.setAvgStudentMarkBase10(studentMarks.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0));
-        report.setMaxStudentMarkBase10(studentMarks.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .max()
-                .orElse(0.0));
-        report.setMinStudentMarkBase10(studentMarks.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .min()
-                .orElse(0.0));
-        report.setAttemptCount((long) quizResponses.size());
-        report.setAvgTimeSpend(calculateAvgTimeSpent(quizResponses));
-        report.setCompletionRate((double) studentMarks.size() / (double) eligibleEnrollments.size());
+        report.setAvgStudentMarkBase10(quizMarks.avgMark());
+        report.setMaxStudentMarkBase10(quizMarks.maxMark());
+        report.setMinStudentMarkBase10(quizMarks.minMark());
+        report.setAttemptCount(quizMarks.attemptCount());
+        report.setAvgTimeSpend(quizMarks.avgTimeSpent());
+        report.setCompletionRate((double) studentMarks.size() / (double) eligibleStudents.size());
 
         // Count question types
         report.setTrueFalseQuestionCount(topicQuiz.getQuestions().stream()
@@ -932,7 +1158,7 @@ public class TopicService {
      */
     @Transactional(readOnly = true)
     public lms.coursehub.models.dtos.reports.SingleAssignmentReportDto getSingleAssignmentReport(String courseId,
-            UUID topicId) {
+            UUID topicId, double[] binEdges) {
         // Fetch topic and validate
         Topic topic = topicRepo.findByIdWithSectionAndCourse(topicId)
                 .orElseThrow(() -> new CustomException("Topic not found", HttpStatus.NOT_FOUND));
@@ -952,11 +1178,18 @@ public class TopicService {
         // Get eligible students (enrolled before assignment close date)
         LocalDateTime closeDate = topicAssignment.getClose() != null ? topicAssignment.getClose()
                 : LocalDateTime.of(3000, 12, 31, 23, 59, 59);
-        List<EnrollmentDetail> eligibleEnrollments = enrollmentDetailRepo.findByCourseIdAndJoinDateBefore(courseId,
-                closeDate);
+        List<User> eligibleStudents = userRepo.findAllById(
+                membershipCache.getStudentIdsJoinedBefore(courseId, closeDate));
 
-        // Get all assignment responses
-        List<AssignmentResponse> assignmentResponses = assignmentResponseRepo.findByTopicAssignmentId(topicId);
+        return buildAssignmentReport(topic.getTitle(), topicAssignment, eligibleStudents, binEdges);
+    }
+
+    // Assignment report from an already loaded assignment and its eligible students
+    private SingleAssignmentReportDto buildAssignmentReport(String title, TopicAssignment topicAssignment,
+            List<User> eligibleStudents, double[] binEdges) {
+        // Get all assignment responses (with their files)
+        List<AssignmentResponse> assignmentResponses = assignmentResponseRepo
+                .findWithFilesByTopicAssignmentId(topicAssignment.getId());
 
         // Calculate student marks (normalized to base 10)
         Map<UUID, AssignmentMarkInfo> studentMarks = assignmentResponses.stream()
@@ -969,28 +1202,50 @@ public class TopicService {
 
         // Build report
         lms.coursehub.models.dtos.reports.SingleAssignmentReportDto report = new lms.coursehub.models.dtos.reports.SingleAssignmentReportDto();
-        report.setName(topic.getTitle());
-        report.setStudents(eligibleEnrollments.stream()
-                .map(e -> topicMapper.toUserDto(e.getStudent()))
-                .toList());
-
-        // Create student info list with marks
-        List<lms.coursehub.models.dtos.reports.SingleAssignmentReportDto.StudentInfoAndMark> studentInfoList = createAssignmentStudentInfoList(
-                eligibleEnrollments, studentMarks);
+        report.setName(title);
+
+        // One pass over the students: rows, report bands and the requested histogram
+        MarkHistogram histogram = new MarkHistogram(binEdges);
+        QuantileSketch sketch = new QuantileSketch();
+        List<UserResponseDto> students = new ArrayList<>(eligibleStudents.size());
+        List<SingleAssignmentReportDto.StudentInfoAndMark> studentInfoList = new ArrayList<>(eligibleStudents.size());
+        List<List<SingleAssignmentReportDto.StudentInfoAndMark>> bands = newBandLists();
+        List<SingleAssignmentReportDto.StudentInfoAndMark> noResponse = new ArrayList<>();
+        for (User student : eligibleStudents) {
+            SingleAssignmentReportDto.StudentInfoAndMark info = new SingleAssignmentReportDto.StudentInfoAndMark();
+            info.setStudent(topicMapper.toUserDto(student));
+            students.add(info.getStudent());
+
+            AssignmentMarkInfo markInfo = studentMarks.get(student.getId());
+            if (markInfo != null) {
+                info.setMark(markInfo.mark);
+                info.setResponseId(markInfo.responseId);
+                info.setSubmitted(true);
+                histogram.add(markInfo.mark);
+                sketch.add(markInfo.mark);
+                addToBand(bands, markInfo.mark, info);
+            } else {
+                info.setMark(0.0);
+                info.setSubmitted(false);
+                histogram.addNoResponse();
+                noResponse.add(info);
+            }
+            studentInfoList.add(info);
+        }
 
+        report.setStudents(students);
         report.setStudentMarks(studentInfoList);
-        report.setStudentWithMarkOver8(filterAssignmentByMark(studentInfoList, 8.0, 10.0));
-        report.setStudentWithMarkOver5(filterAssignmentByMark(studentInfoList, 5.0, 8.0));
-        report.setStudentWithMarkOver2(filterAssignmentByMark(studentInfoList, 2.0, 5.0));
-        report.setStudentWithMarkOver0(filterAssignmentByMark(studentInfoList, 0.0, 2.0));
-        report.setStudentWithNoResponse(studentInfoList.stream()
-                .filter(s -> !s.getSubmitted())
-                .toList());
+        report.setStudentWithMarkOver8(bands.get(3));
+        report.setStudentWithMarkOver5(bands.get(2));
+        report.setStudentWithMarkOver2(bands.get(1));
+        report.setStudentWithMarkOver0(bands.get(0));
+        report.setStudentWithNoResponse(noResponse);
 
         // Calculate statistics
-        Map<UUID, Double> marksOnly = studentMarks.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().mark));
-        report.setMarkDistributionCount(calculateMarkDistribution(marksOnly, eligibleEnrollments.size()));
+        report.setMarkHistogram(histogram);
+        report.setMarkDistributionCount(histogram.toDistribution());
+        report.setMarkSketch(sketch);
+        report.setMarkPercentiles(toPercentiles(sketch));
         report.setSubmissionCount((long) assignmentResponses.size());
         report.setGradedSubmissionCount(assignmentResponses.stream()
                 .filter(r -> r.getMark() != null)
@@ -1008,7 +1263,7 @@ public class TopicService {
                 .mapToDouble(r -> r.getMark().doubleValue())
                 .max()
                 .orElse(0.0));
-        report.setCompletionRate((double) assignmentResponses.size() / (double) eligibleEnrollments.size());
+        report.setCompletionRate((double) assignmentResponses.size() / (double) eligibleStudents.size());
 
         // Count file types
         Map<String, Long> fileTypeCount = assignmentResponses.stream()
@@ -1027,139 +1282,20 @@ public class TopicService {
 
     // ================== HELPER METHODS ==================
 
-    private Map<UUID, Double> calculateStudentMarks(List<QuizResponse> responses, String gradingMethod) {
-        // Group responses by student
-        Map<UUID, List<QuizResponse>> responsesByStudent = responses.stream()
-                .collect(Collectors.groupingBy(r -> r.getStudent().getId()));
-
-        // Calculate mark for each student based on grading method
-        return responsesByStudent.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> calculateMarkByMethod(entry.getValue(), gradingMethod)));
-    }
-
-    private Double calculateMarkByMethod(List<QuizResponse> studentResponses, String method) {
-        // Calculate total mark for each response (normalized to base 10)
-        List<Double> marks = studentResponses.stream()
-                .map(this::calculateResponseMark)
-                .toList();
-
-        return switch (method != null ? method : "Highest Grade") {
-            case "Highest Grade" -> marks.stream().max(Double::compare).orElse(0.0);
-            case "Average Grade" -> marks.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            case "First Grade" -> !marks.isEmpty() ? marks.get(0) : 0.0;
-            case "Last Grade" -> !marks.isEmpty() ? marks.get(marks.size() - 1) : 0.0;
-            default -> marks.stream().max(Double::compare).orElse(0.0);
-        };
-    }
-
-    private Double calculateResponseMark(QuizResponse response) {
-        // Calculate mark as percentage (0-10 scale)
-        List<QuizResponseAnswer> answers = response.getQuizResponseAnswers();
-        if (answers.isEmpty())
-            return 0.0;
-
-        double totalMark = answers.stream()
-                .mapToDouble(a -> a.getMark() != null ? a.getMark().doubleValue() : 0.0)
-                .sum();
-
-        // Normalize to 0-10 scale (assuming marks are already in proper scale)
-        return totalMark;
-    }
-
-    private List<lms.coursehub.models.dtos.reports.SingleQuizReportDto.StudentInfoAndMark> createStudentInfoList(
-            List<EnrollmentDetail> enrollments, Map<UUID, Double> marks) {
-
-        return enrollments.stream()
-                .map(enrollment -> {
-                    lms.coursehub.models.dtos.reports.SingleQuizReportDto.StudentInfoAndMark info = new lms.coursehub.models.dtos.reports.SingleQuizReportDto.StudentInfoAndMark();
-                    info.setStudent(topicMapper.toUserDto(enrollment.getStudent()));
-
-                    UUID studentId = enrollment.getStudent().getId();
-                    if (marks.containsKey(studentId)) {
-                        info.setMark(marks.get(studentId));
-                        info.setSubmitted(true);
-                        // Note: responseId is tricky with multiple attempts - leaving null for now
-                    } else {
-                        info.setMark(0.0);
-                        info.setSubmitted(false);
-                    }
-
-                    return info;
-                })
-                .toList();
-    }
-
-    private List<lms.coursehub.models.dtos.reports.SingleAssignmentReportDto.StudentInfoAndMark> createAssignmentStudentInfoList(
-            List<EnrollmentDetail> enrollments, Map<UUID, AssignmentMarkInfo> marks) {
-
-        return enrollments.stream()
-                .map(enrollment -> {
-                    lms.coursehub.models.dtos.reports.SingleAssignmentReportDto.StudentInfoAndMark info = new lms.coursehub.models.dtos.reports.SingleAssignmentReportDto.StudentInfoAndMark();
-                    info.setStudent(topicMapper.toUserDto(enrollment.getStudent()));
-
-                    UUID studentId = enrollment.getStudent().getId();
-                    if (marks.containsKey(studentId)) {
-                        AssignmentMarkInfo markInfo = marks.get(studentId);
-                        info.setMark(markInfo.mark);
-                        info.setResponseId(markInfo.responseId);
-                        info.setSubmitted(true);
-                    } else {
-                        info.setMark(0.0);
-                        info.setSubmitted(false);
-                    }
-
-                    return info;
-                })
-                .toList();
-    }
-
-    private List<lms.coursehub.models.dtos.reports.SingleQuizReportDto.StudentInfoAndMark> filterByMark(
-            List<lms.coursehub.models.dtos.reports.SingleQuizReportDto.StudentInfoAndMark> students,
-            double minMark, double maxMark) {
-        return students.stream()
-                .filter(s -> s.getSubmitted() && s.getMark() != null &&
-                        s.getMark() >= minMark && s.getMark() < maxMark)
-                .toList();
-    }
-
-    private List<lms.coursehub.models.dtos.reports.SingleAssignmentReportDto.StudentInfoAndMark> filterAssignmentByMark(
-            List<lms.coursehub.models.dtos.reports.SingleAssignmentReportDto.StudentInfoAndMark> students,
-            double minMark, double maxMark) {
-        return students.stream()
-                .filter(s -> s.getSubmitted() && s.getMark() != null &&
-                        s.getMark() >= minMark && s.getMark() < maxMark)
-                .toList();
-    }
-
-    private Map<Integer, Long> calculateMarkDistribution(Map<UUID, Double> marks, int totalStudents) {
-        Map<Integer, Long> distribution = new HashMap<>();
-
-        long count8Plus = marks.values().stream().filter(m -> m >= 8.0).count();
-        long count5To8 = marks.values().stream().filter(m -> m >= 5.0 && m < 8.0).count();
-        long count2To5 = marks.values().stream().filter(m -> m >= 2.0 && m < 5.0).count();
-        long count0To2 = marks.values().stream().filter(m -> m >= 0.0 && m < 2.0).count();
-        long noResponse = totalStudents - marks.size();
-
-        distribution.put(8, count8Plus);
-        distribution.put(5, count5To8);
-        distribution.put(2, count2To5);
-        distribution.put(0, count0To2);
-        distribution.put(-1, noResponse);
-
-        return distribution;
+    // Four empty lists for the report bands 0-2, 2-5, 5-8, 8+ (MarkHistogram.DEFAULT_EDGES buckets)
+    private static <T> List<List<T>> newBandLists() {
+        List<List<T>> bands = new ArrayList<>(MarkHistogram.DEFAULT_EDGES.length);
+        for (int i = 0; i < MarkHistogram.DEFAULT_EDGES.length; i++) {
+            bands.add(new ArrayList<>());
+        }
+        return bands;
     }
 
-    private Double calculateAvgTimeSpent(List<QuizResponse> responses) {
-        return responses.stream()
-                .filter(r -> r.getStartedAt() != null && r.getCompletedAt() != null)
-                .mapToDouble(r -> {
-                    long seconds = java.time.Duration.between(r.getStartedAt(), r.getCompletedAt()).getSeconds();
-                    return (double) seconds;
-                })
-                .average()
-                .orElse(0.0);
+    private static <T> void addToBand(List<List<T>> bands, double mark, T student) {
+        int band = MarkHistogram.bucketOf(MarkHistogram.DEFAULT_EDGES, mark);
+        if (band >= 0) {
+            bands.get(band).add(student);
+        }
     }
 
     // Helper class for assignment mark info
@@ -1178,37 +1314,26 @@ public class TopicService {
     /**
      * Get aggregated quiz report for all quizzes in a course within a date range
      */
-    public AllQuizzesReportDto getAllQuizzesReport(String courseId, LocalDateTime startTime, LocalDateTime endTime) {
-        Course course = courseRepo.findById(courseId)
-                .orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
-
-        List<SingleQuizReportDto> singleQuizReportDtos = new ArrayList<>();
-
-        // Define min/max times for null open/close dates
-        LocalDateTime MIN = LocalDateTime.of(1000, 12, 31, 23, 59, 59);
-        LocalDateTime MAX = LocalDateTime.of(3000, 12, 31, 23, 59, 59);
-
-        // Iterate through all sections and topics in the course
-        course.getSections().forEach(section -> {
-            section.getTopics().forEach(topic -> {
-                if ("quiz".equals(topic.getType())) {
-                    // Get the quiz details
-                    topicQuizRepo.findById(topic.getId()).ifPresent(topicQuiz -> {
-                        LocalDateTime topicStart = (topicQuiz.getOpen() == null) ? MIN : topicQuiz.getOpen();
-                        LocalDateTime topicEnd = (topicQuiz.getClose() == null) ? MAX : topicQuiz.getClose();
-
-                        // Check if quiz falls within the date range
-                        if (topicStart.isBefore(endTime) && topicEnd.isAfter(startTime)) {
-                            singleQuizReportDtos.add(getSingleQuizReport(courseId, topic.getId()));
-                        }
-                    });
-                }
-            });
-        });
+    public AllQuizzesReportDto getAllQuizzesReport(String courseId, LocalDateTime startTime, LocalDateTime endTime,
+            double[] binEdges) {
+        if (!courseRepo.existsById(courseId)) {
+            throw new CustomException("Course not found", HttpStatus.NOT_FOUND);
+        }
+
+        // Quiz headers and roster are loaded once for the whole course
+        List<TopicQuiz> quizzes = topicQuizRepo.findAllWithQuestionsByCourseId(courseId).stream()
+                .filter(quiz -> overlapsReportWindow(quiz.getOpen(), quiz.getClose(), startTime, endTime))
+                .toList();
+        ReportRoster roster = loadReportRoster(courseId);
+
+        // Per-quiz reports run concurrently and come back in outline order
+        List<SingleQuizReportDto> singleQuizReportDtos = reportExecutor.mapAll(quizzes,
+                quiz -> buildQuizReport(quiz.getTopic().getTitle(), quiz, roster.eligibleFor(quiz.getClose()),
+                        binEdges));
 
         // Calculate average student scores across all quizzes
         List<SingleQuizReportDto.StudentInfoAndMark> studentInfoAndMarks = calculateAverageStudentScoreForQuizzes(
-                singleQuizReportDtos);
+                courseId, quizzes.stream().map(TopicQuiz::getId).toList(), roster);
 
         // Build the aggregated report
         AllQuizzesReportDto reportDto = new AllQuizzesReportDto();
@@ -1241,36 +1366,27 @@ public class TopicService {
 
         reportDto.setStudentInfoWithMarkAverage(studentInfoAndMarks);
 
-        // Filter students by mark ranges
-        reportDto.setStudentWithMarkOver8(
-                studentInfoAndMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getMark() != null && info.getMark() >= 8.0)
-                        .toList());
-        reportDto.setStudentWithMarkOver5(
-                studentInfoAndMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getMark() != null &&
-                                info.getMark() >= 5.0 && info.getMark() < 8.0)
-                        .toList());
-        reportDto.setStudentWithMarkOver2(
-                studentInfoAndMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getMark() != null &&
-                                info.getMark() >= 2.0 && info.getMark() < 5.0)
-                        .toList());
-        reportDto.setStudentWithMarkOver0(
-                studentInfoAndMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getMark() != null && info.getMark() < 2.0)
-                        .toList());
-        reportDto.setStudentWithNoResponse(
-                studentInfoAndMarks.stream()
-                        .filter(info -> !info.getSubmitted())
-                        .toList());
+        // Split students by mark range in one pass
+        List<List<SingleQuizReportDto.StudentInfoAndMark>> bands = newBandLists();
+        List<SingleQuizReportDto.StudentInfoAndMark> noResponse = new ArrayList<>();
+        for (SingleQuizReportDto.StudentInfoAndMark info : studentInfoAndMarks) {
+            if (!info.getSubmitted()) {
+                noResponse.add(info);
+            } else if (info.getMark() != null) {
+                addToBand(bands, info.getMark(), info);
+            }
+        }
+        reportDto.setStudentWithMarkOver8(bands.get(3));
+        reportDto.setStudentWithMarkOver5(bands.get(2));
+        reportDto.setStudentWithMarkOver2(bands.get(1));
+        reportDto.setStudentWithMarkOver0(bands.get(0));
+        reportDto.setStudentWithNoResponse(noResponse);
 
         // Merge mark distributions from all quizzes
-        reportDto.setMarkDistributionCount(
-                mergeMarkDistributionCount(
-                        singleQuizReportDtos.stream()
-                                .map(SingleQuizReportDto::getMarkDistributionCount)
-                                .toList()));
+        reportDto.setMarkDistributionCount(mergeHistograms(binEdges,
+                singleQuizReportDtos.stream().map(SingleQuizReportDto::getMarkHistogram).toList()));
+        reportDto.setMarkPercentiles(mergePercentiles(
+                singleQuizReportDtos.stream().map(SingleQuizReportDto::getMarkSketch).toList()));
 
         reportDto.setSingleQuizReports(singleQuizReportDtos);
 
@@ -1296,68 +1412,56 @@ public class TopicService {
      * date range
      */
     public AllAssignmentsReportDto getAllAssignmentsReport(String courseId, LocalDateTime startTime,
-            LocalDateTime endTime) {
-        Course course = courseRepo.findById(courseId)
-                .orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
+            LocalDateTime endTime, double[] binEdges) {
+        if (!courseRepo.existsById(courseId)) {
+            throw new CustomException("Course not found", HttpStatus.NOT_FOUND);
+        }
 
-        List<SingleAssignmentReportDto> singleAssignmentReportDtos = new ArrayList<>();
+        // Assignment headers and roster are loaded once for the whole course
+        List<TopicAssignment> assignments = topicAssignmentRepo.findAllByCourseId(courseId).stream()
+                .filter(assignment -> overlapsReportWindow(assignment.getOpen(), assignment.getClose(),
+                        startTime, endTime))
+                .toList();
+        ReportRoster roster = loadReportRoster(courseId);
 
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime monthStart = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
         LocalDateTime monthEnd = now.withDayOfMonth(now.toLocalDate().lengthOfMonth())
                 .withHour(23).withMinute(59).withSecond(59);
 
-        int[] assignmentsEndingThisMonth = { 0 };
-        int[] assignmentsInProgressCounter = { 0 };
-        LocalDateTime[] nextClosestEndTime = { null };
-
-        // Define min/max times for null open/close dates
-        LocalDateTime MIN = LocalDateTime.of(1000, 12, 31, 23, 59, 59);
-        LocalDateTime MAX = LocalDateTime.of(3000, 12, 31, 23, 59, 59);
-
-        // Iterate through all sections and topics in the course
-        course.getSections().forEach(section -> {
-            section.getTopics().forEach(topic -> {
-                if ("assignment".equals(topic.getType())) {
-                    topicAssignmentRepo.findById(topic.getId()).ifPresent(topicAssignment -> {
-                        LocalDateTime topicStart = (topicAssignment.getOpen() == null) ? MIN
-                                : topicAssignment.getOpen();
-                        LocalDateTime topicEnd = (topicAssignment.getClose() == null) ? MAX
-                                : topicAssignment.getClose();
-
-                        // Check if assignment falls within the date range
-                        if (topicStart.isBefore(endTime) && topicEnd.isAfter(startTime)) {
-                            singleAssignmentReportDtos.add(getSingleAssignmentReport(courseId, topic.getId()));
-
-                            // Count assignments ending this month
-                            if (topicEnd.isAfter(monthStart) && topicEnd.isBefore(monthEnd) && topicEnd.isAfter(now)) {
-                                assignmentsEndingThisMonth[0]++;
-                            }
-
-                            // Count assignments in progress
-                            if (topicEnd.isAfter(now)) {
-                                assignmentsInProgressCounter[0]++;
-                            }
-
-                            // Find next closest end time
-                            if (topicEnd.isAfter(now)) {
-                                if (nextClosestEndTime[0] == null || topicEnd.isBefore(nextClosestEndTime[0])) {
-                                    nextClosestEndTime[0] = topicEnd;
-                                }
-                            }
-                        }
-                    });
+        int assignmentsEndingThisMonth = 0;
+        int assignmentsInProgress = 0;
+        LocalDateTime nextClosestEndTime = null;
+
+        for (TopicAssignment assignment : assignments) {
+            LocalDateTime topicEnd = (assignment.getClose() == null) ? REPORT_MAX_TIME : assignment.getClose();
+
+            // Count assignments ending this month
+            if (topicEnd.isAfter(monthStart) && topicEnd.isBefore(monthEnd) && topicEnd.isAfter(now)) {
+                assignmentsEndingThisMonth++;
+            }
+
+            // Count assignments in progress and find the next closest end time
+            if (topicEnd.isAfter(now)) {
+                assignmentsInProgress++;
+                if (nextClosestEndTime == null || topicEnd.isBefore(nextClosestEndTime)) {
+                    nextClosestEndTime = topicEnd;
                 }
-            });
-        });
+            }
+        }
+
+        // Per-assignment reports run concurrently and come back in outline order
+        List<SingleAssignmentReportDto> singleAssignmentReportDtos = reportExecutor.mapAll(assignments,
+                assignment -> buildAssignmentReport(assignment.getTopic().getTitle(), assignment,
+                        roster.eligibleFor(assignment.getClose()), binEdges));
 
         // Calculate average student scores across all assignments
         List<AllAssignmentsReportDto.StudentInfoWithAverageMark> studentInfoWithAverageMarks = calculateAverageStudentScoreForAssignments(
-                singleAssignmentReportDtos);
+                courseId, assignments.stream().map(TopicAssignment::getId).toList(), roster);
 
         // Build the aggregated report
         AllAssignmentsReportDto reportDto = new AllAssignmentsReportDto();
-        reportDto.setAssignmentsCountInProgress(assignmentsInProgressCounter[0]);
+        reportDto.setAssignmentsCountInProgress(assignmentsInProgress);
         reportDto.setAssignmentCount(singleAssignmentReportDtos.size());
         reportDto.setAvgMark(
                 singleAssignmentReportDtos.stream()
@@ -1369,43 +1473,32 @@ public class TopicService {
                         .mapToDouble(SingleAssignmentReportDto::getCompletionRate)
                         .average()
                         .orElse(0.0));
-        reportDto.setNumberOfAssignmentEndsAtThisMonth(assignmentsEndingThisMonth[0]);
-        reportDto.setClosestNextEndAssignment(nextClosestEndTime[0]);
+        reportDto.setNumberOfAssignmentEndsAtThisMonth(assignmentsEndingThisMonth);
+        reportDto.setClosestNextEndAssignment(nextClosestEndTime);
 
         // Merge mark distributions
-        reportDto.setMarkDistributionCount(
-                mergeMarkDistributionCount(
-                        singleAssignmentReportDtos.stream()
-                                .map(SingleAssignmentReportDto::getMarkDistributionCount)
-                                .toList()));
+        reportDto.setMarkDistributionCount(mergeHistograms(binEdges,
+                singleAssignmentReportDtos.stream().map(SingleAssignmentReportDto::getMarkHistogram).toList()));
+        reportDto.setMarkPercentiles(mergePercentiles(
+                singleAssignmentReportDtos.stream().map(SingleAssignmentReportDto::getMarkSketch).toList()));
 
         reportDto.setStudentInfoWithMarkAverage(studentInfoWithAverageMarks);
 
-        // Filter students by mark ranges
-        reportDto.setStudentWithMarkOver8(
-                studentInfoWithAverageMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getAverageMark() != null &&
-                                info.getAverageMark() >= 8.0)
-                        .toList());
-        reportDto.setStudentWithMarkOver5(
-                studentInfoWithAverageMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getAverageMark() != null &&
-                                info.getAverageMark() >= 5.0 && info.getAverageMark() < 8.0)
-                        .toList());
-        reportDto.setStudentWithMarkOver2(
-                studentInfoWithAverageMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getAverageMark() != null &&
-                                info.getAverageMark() >= 2.0 && info.getAverageMark() < 5.0)
-                        .toList());
-        reportDto.setStudentWithMarkOver0(
-                studentInfoWithAverageMarks.stream()
-                        .filter(info -> info.getSubmitted() && info.getAverageMark() != null &&
-                                info.getAverageMark() < 2.0)
-                        .toList());
-        reportDto.setStudentWithNoResponse(
-                studentInfoWithAverageMarks.stream()
-                        .filter(info -> !info.getSubmitted())
-                        .toList());
+        // Split students by mark range in one pass
+        List<List<AllAssignmentsReportDto.StudentInfoWithAverageMark>> bands = newBandLists();
+        List<AllAssignmentsReportDto.StudentInfoWithAverageMark> noResponse = new ArrayList<>();
+        for (AllAssignmentsReportDto.StudentInfoWithAverageMark info : studentInfoWithAverageMarks) {
+            if (!info.getSubmitted()) {
+                noResponse.add(info);
+            } else if (info.getAverageMark() != null) {
+                addToBand(bands, info.getAverageMark(), info);
+            }
+        }
+        reportDto.setStudentWithMarkOver8(bands.get(3));
+        reportDto.setStudentWithMarkOver5(bands.get(2));
+        reportDto.setStudentWithMarkOver2(bands.get(1));
+        reportDto.setStudentWithMarkOver0(bands.get(0));
+        reportDto.setStudentWithNoResponse(noResponse);
 
         // Aggregate file type counts
         reportDto.setFileTypeCount(
@@ -1421,107 +1514,112 @@ public class TopicService {
         return reportDto;
     }
 
-    /**
-     * Calculate average scores for students across multiple quizzes
-     */
-    private List<SingleQuizReportDto.StudentInfoAndMark> calculateAverageStudentScoreForQuizzes(
-            List<SingleQuizReportDto> singleQuizReports) {
-
-        Map<UUID, List<Double>> studentScoresMap = new HashMap<>();
-        Map<UUID, SingleQuizReportDto.StudentInfoAndMark> latestStudentInfo = new HashMap<>();
+    // Sum of the per-topic histograms (all built over the same edges)
+    private static Map<Number, Number> mergeHistograms(double[] binEdges, List<MarkHistogram> histograms) {
+        MarkHistogram merged = new MarkHistogram(binEdges);
+        histograms.forEach(merged::merge);
+        return merged.toDistribution();
+    }
 
-        // Collect scores and latest info for each student across all quizzes
-        for (SingleQuizReportDto report : singleQuizReports) {
-            if (report.getStudentWithMark() == null)
-                continue;
+    // Course-level percentiles from the per-topic sketches, without the raw marks
+    private static MarkPercentilesDto mergePercentiles(List<QuantileSketch> sketches) {
+        QuantileSketch merged = new QuantileSketch();
+        sketches.forEach(merged::merge);
+        return toPercentiles(merged);
+    }
 
-            report.getStudentWithMark().forEach(infoAndMark -> {
-                if (infoAndMark.getStudent() != null && infoAndMark.getSubmitted()) {
-                    UUID studentId = infoAndMark.getStudent().getId();
-                    studentScoresMap.computeIfAbsent(studentId, k -> new ArrayList<>()).add(infoAndMark.getMark());
-                    latestStudentInfo.put(studentId, infoAndMark);
-                }
-            });
+    private static MarkPercentilesDto toPercentiles(QuantileSketch sketch) {
+        if (sketch.getCount() == 0) {
+            return new MarkPercentilesDto(0L, null, null, null, null, null, null);
         }
-
-        // Create final list with averaged scores
-        return studentScoresMap.entrySet().stream()
-                .map(entry -> {
-                    UUID studentId = entry.getKey();
-                    List<Double> scores = entry.getValue();
-                    SingleQuizReportDto.StudentInfoAndMark existingInfo = latestStudentInfo.get(studentId);
-
-                    SingleQuizReportDto.StudentInfoAndMark avgInfo = new SingleQuizReportDto.StudentInfoAndMark();
-                    avgInfo.setStudent(existingInfo.getStudent());
-                    avgInfo.setSubmitted(existingInfo.getSubmitted());
-                    avgInfo.setResponseId(existingInfo.getResponseId());
-                    avgInfo.setMark(scores.stream().mapToDouble(Double::doubleValue).average().orElse(0.0));
-
-                    return avgInfo;
-                })
-                .collect(Collectors.toList());
+        double p25 = sketch.quantile(0.25);
+        double p75 = sketch.quantile(0.75);
+        return new MarkPercentilesDto(sketch.getCount(), sketch.quantile(0.10), p25, sketch.quantile(0.5), p75,
+                sketch.quantile(0.90), p75 - p25);
     }
 
-    /**
-     * Calculate average scores for students across multiple assignments
-     */
-    private List<AllAssignmentsReportDto.StudentInfoWithAverageMark> calculateAverageStudentScoreForAssignments(
-            List<SingleAssignmentReportDto> singleAssignmentReports) {
+    // Stand-ins for missing open/close dates
+    private static final LocalDateTime REPORT_MIN_TIME = LocalDateTime.of(1000, 12, 31, 23, 59, 59);
+    private static final LocalDateTime REPORT_MAX_TIME = LocalDateTime.of(3000, 12, 31, 23, 59, 59);
+
+    // Whether a topic's open..close period overlaps the report window; a missing bound is unbounded
+    private static boolean overlapsReportWindow(LocalDateTime open, LocalDateTime close,
+            LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime topicStart = (open == null) ? REPORT_MIN_TIME : open;
+        LocalDateTime topicEnd = (close == null) ? REPORT_MAX_TIME : close;
+        return (endTime == null || topicStart.isBefore(endTime))
+                && (startTime == null || topicEnd.isAfter(startTime));
+    }
 
-        Map<UUID, List<Double>> studentScoresMap = new HashMap<>();
-        Map<UUID, SingleAssignmentReportDto.StudentInfoAndMark> latestStudentInfo = new HashMap<>();
+    private ReportRoster loadReportRoster(String courseId) {
+        Map<UUID, LocalDateTime> joinDates = membershipCache.getStudents(courseId);
+        return new ReportRoster(userRepo.findAllById(joinDates.keySet()), joinDates);
+    }
 
-        // Collect scores and latest info for each student across all assignments
-        for (SingleAssignmentReportDto report : singleAssignmentReports) {
-            if (report.getStudentMarks() == null)
-                continue;
+    // Enrolled students of a course, shared by all per-topic reports of one request
+    private record ReportRoster(List<User> students, Map<UUID, LocalDateTime> joinDates) {
 
-            report.getStudentMarks().forEach(infoAndMark -> {
-                if (infoAndMark.getStudent() != null && infoAndMark.getSubmitted()) {
-                    UUID studentId = infoAndMark.getStudent().getId();
-                    studentScoresMap.computeIfAbsent(studentId, k -> new ArrayList<>()).add(infoAndMark.getMark());
-                    latestStudentInfo.put(studentId, infoAndMark);
-                }
-            });
+        // Students who joined no later than the topic's close date
+        List<User> eligibleFor(LocalDateTime close) {
+            if (close == null) {
+                return students;
+            }
+            return students.stream()
+                    .filter(student -> {
+                        LocalDateTime joinDate = joinDates.get(student.getId());
+                        return joinDate == null || !joinDate.isAfter(close);
+                    })
+                    .toList();
         }
-
-        // Create final list with averaged scores
-        return studentScoresMap.entrySet().stream()
-                .map(entry -> {
-                    UUID studentId = entry.getKey();
-                    List<Double> scores = entry.getValue();
-                    SingleAssignmentReportDto.StudentInfoAndMark existingInfo = latestStudentInfo.get(studentId);
-
-                    double averageMark = scores.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-                    return new AllAssignmentsReportDto.StudentInfoWithAverageMark(
-                            existingInfo.getStudent(),
-                            averageMark,
-                            existingInfo.getSubmitted());
-                })
-                .toList();
     }
 
     /**
-     * Merge mark distribution counts from multiple reports
+     * Calculate average scores for students across multiple quizzes
      */
-    private Map<Number, Number> mergeMarkDistributionCount(List<?> markDistributionCount) {
-        Map<Integer, Long> groupedValues = new HashMap<>();
-        Integer[] keys = { -1, 0, 2, 5, 8 };
+    private List<SingleQuizReportDto.StudentInfoAndMark> calculateAverageStudentScoreForQuizzes(
+            String courseId, List<UUID> topicIds, ReportRoster roster) {
+        List<SingleQuizReportDto.StudentInfoAndMark> result = new ArrayList<>();
+        forEachAverageMark(courseId, topicIds, roster, (student, averageMark) -> {
+            SingleQuizReportDto.StudentInfoAndMark avgInfo = new SingleQuizReportDto.StudentInfoAndMark();
+            avgInfo.setStudent(topicMapper.toUserDto(student));
+            avgInfo.setSubmitted(true);
+            avgInfo.setMark(averageMark);
+            result.add(avgInfo);
+        });
+        return result;
+    }
 
-        for (Object distObj : markDistributionCount) {
-            @SuppressWarnings("unchecked")
-            Map<Integer, Long> distribution = (Map<Integer, Long>) distObj;
+    /**
+     * Calculate average scores for students across multiple assignments
+     */
+    private List<AllAssignmentsReportDto.StudentInfoWithAverageMark> calculateAverageStudentScoreForAssignments(
+            String courseId, List<UUID> topicIds, ReportRoster roster) {
+        List<AllAssignmentsReportDto.StudentInfoWithAverageMark> result = new ArrayList<>();
+        forEachAverageMark(courseId, topicIds, roster, (student, averageMark) -> result.add(
+                new AllAssignmentsReportDto.StudentInfoWithAverageMark(topicMapper.toUserDto(student), averageMark,
+                        true)));
+        return result;
+    }
 
-            for (Integer key : keys) {
-                Long value = distribution.getOrDefault(key, 0L);
-                groupedValues.put(key, groupedValues.getOrDefault(key, 0L) + value);
+    // Per-student average over the given topics, read from the course's columnar gradebook;
+    // students without any mark are skipped
+    private void forEachAverageMark(String courseId, List<UUID> topicIds, ReportRoster roster,
+            java.util.function.ObjDoubleConsumer<User> action) {
+        GradebookCache.CourseGradebook gradebook = gradebookCache.get(courseId);
+        int[] columns = topicIds.stream()
+                .mapToInt(gradebook::columnOf)
+                .filter(column -> column >= 0)
+                .toArray();
+        double[] averages = gradebook.averageOver(columns);
+
+        Map<UUID, User> students = roster.students().stream()
+                .collect(Collectors.toMap(User::getId, student -> student));
+        for (int s = 0; s < averages.length; s++) {
+            User student = students.get(gradebook.getStudentId(s));
+            if (!Double.isNaN(averages[s]) && student != null) {
+                action.accept(student, averages[s]);
             }
         }
-
-        // Convert to Map<Number, Number>
-        Map<Number, Number> result = new HashMap<>();
-        groupedValues.forEach((k, v) -> result.put(k, v));
-        return result;
     }
 
     /**
@@ -1,5 +1,8 @@
 package lms.coursehub.services;
 
+import lms.coursehub.helpers.caches.MembershipCache;
+import lms.coursehub.helpers.caches.StudentReportCache;
+import lms.coursehub.helpers.caches.WorkCalendarIndex;
 import lms.coursehub.helpers.exceptions.CustomException;
 import lms.coursehub.helpers.mapstructs.UserMapper;
 import lms.coursehub.models.dtos.auth.LoginRequest;
@@ -17,9 +20,6 @@ import lms.coursehub.repositories.EnrollmentDetailRepo;
 import lms.coursehub.repositories.RefreshTokenRepo;
 import lms.coursehub.repositories.TopicRepo;
 import lms.coursehub.repositories.UserRepo;
-import lms.coursehub.repositories.QuizResponseRepo;
-import lms.coursehub.repositories.AssignmentResponseRepo;
-import lms.coursehub.repositories.TopicAssignmentRepo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -46,11 +46,16 @@ public class UserService {
     private final UserMapper userMapper;
     private final EnrollmentDetailRepo enrollmentDetailRepo;
     private final TopicRepo topicRepo;
+    private final WorkCalendarIndex workCalendarIndex;
+    private final MembershipCache membershipCache;
     private final CourseRepo courseRepo;
     private final CustomUserDetailsService customUserDetailsService;
-    private final QuizResponseRepo quizResponseRepo;
-    private final AssignmentResponseRepo assignmentResponseRepo;
-    private final TopicAssignmentRepo topicAssignmentRepo;
+    private final CourseVersionService courseVersionService;
+    private final StudentReportCache studentReportCache;
+
+    // Bounds of an open-ended report window
+    private static final LocalDateTime REPORT_MIN_TIME = LocalDateTime.of(1000, 12, 31, 23, 59, 59);
+    private static final LocalDateTime REPORT_MAX_TIME = LocalDateTime.of(3000, 12, 31, 23, 59, 59);
 
     public User findByEmail(String email) {
         return userRepo.findByEmail(email)
@@ -200,6 +205,8 @@ public class UserService {
         enrollmentDetailRepo.delete(enrollment);
         // Save updated course
         courseRepo.save(course);
+        courseVersionService.bump(courseId);
+        membershipCache.left(user.getId(), courseId);
     }
 
     /**
@@ -220,157 +227,26 @@ public class UserService {
         LocalDateTime startDate = start != null ? LocalDateTime.parse(start) : null;
         LocalDateTime endDate = end != null ? LocalDateTime.parse(end) : null;
 
-        // Get topics based on type and date range
-        List<Topic> topics;
-        if (type != null) {
-            topics = getTopicsByType(courseIds, type, startDate, endDate);
-        } else {
-            topics = getAllWorkTopics(courseIds, startDate, endDate);
+        List<String> types = type != null ? List.of(type.toLowerCase()) : WorkCalendarIndex.WORK_TYPES;
+        if (!WorkCalendarIndex.WORK_TYPES.containsAll(types)) {
+            // Only work items are indexed; other types are filtered and projected in SQL
+            return topicRepo.findUserWork(courseIds, types, startDate, endDate);
         }
-
-        // Map to DTO
-        return topics.stream()
-                .map(this::mapTopicToUserWorkDto)
-                .collect(Collectors.toList());
+        return workCalendarIndex.findWork(courseIds, types, startDate, endDate);
     }
 
     private List<String> getCourseIdsByUserRole(User user) {
         if (user.getRole() == UserRole.STUDENT) {
             // For students: get courses they are enrolled in
-            List<EnrollmentDetail> enrollments = enrollmentDetailRepo.findByStudentId(user.getId());
-            return enrollments.stream()
-                    .map(e -> e.getCourse().getId())
-                    .collect(Collectors.toList());
+            return new ArrayList<>(membershipCache.getCourseIds(user.getId()));
         } else if (user.getRole() == UserRole.TEACHER) {
             // For teachers: get courses they created
-            return courseRepo.findByCreatorId(user.getId()).stream()
-                    .map(Course::getId)
-                    .collect(Collectors.toList());
+            return courseRepo.findIdsByCreatorId(user.getId());
         }
         // For other roles (if any), return empty list
         return new ArrayList<>();
     }
 
-    private List<Topic> getTopicsByType(List<String> courseIds, String type, LocalDateTime start, LocalDateTime end) {
-        // This is a simplified version - you may need to adjust based on your Topic
-        // entity structure
-        List<Topic> allTopics = topicRepo.findAll();
-        return allTopics.stream()
-                .filter(t -> courseIds.contains(t.getSection().getCourse().getId()))
-                .filter(t -> t.getType().equalsIgnoreCase(type))
-                .filter(t -> filterByDateRange(t, start, end))
-                .collect(Collectors.toList());
-    }
-
-    private List<Topic> getAllWorkTopics(List<String> courseIds, LocalDateTime start, LocalDateTime end) {
-        List<Topic> allTopics = topicRepo.findAll();
-        return allTopics.stream()
-                .filter(t -> courseIds.contains(t.getSection().getCourse().getId()))
-                .filter(t -> Arrays.asList("quiz", "assignment", "meeting").contains(t.getType().toLowerCase()))
-                .filter(t -> filterByDateRange(t, start, end))
-                .collect(Collectors.toList());
-    }
-
-    private boolean filterByDateRange(Topic topic, LocalDateTime start, LocalDateTime end) {
-        if (start == null && end == null) {
-            return true;
-        }
-
-        // Get open and close dates based on topic type
-        LocalDateTime topicOpen = null;
-        LocalDateTime topicClose = null;
-
-        String type = topic.getType().toLowerCase();
-        switch (type) {
-            case "quiz":
-                if (topic.getTopicQuiz() != null) {
-                    topicOpen = topic.getTopicQuiz().getOpen();
-                    topicClose = topic.getTopicQuiz().getClose();
-                }
-                break;
-
-            case "assignment":
-                if (topic.getTopicAssignment() != null) {
-                    topicOpen = topic.getTopicAssignment().getOpen();
-                    topicClose = topic.getTopicAssignment().getClose();
-                }
-                break;
-
-            case "meeting":
-                // Note: Topic entity doesn't have topicMeeting relationship
-                return false;
-
-            default:
-                return false;
-        }
-
-        // If topic doesn't have dates, exclude it
-        if (topicOpen == null) {
-            return false;
-        }
-
-        // Check if topic's date range overlaps with filter date range
-        // Topic is included if its open-close period overlaps with start-end filter
-        // period
-
-        if (start != null) {
-            LocalDateTime topicEndDate = topicClose != null ? topicClose : topicOpen;
-            if (topicEndDate.isBefore(start)) {
-                return false;
-            }
-        }
-
-        if (end != null) {
-            if (topicOpen.isAfter(end)) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    private UserWorkResponseDto mapTopicToUserWorkDto(Topic topic) {
-        UserWorkResponseDto dto = new UserWorkResponseDto();
-        dto.setTopicId(topic.getId());
-        dto.setTitle(topic.getTitle());
-        dto.setType(topic.getType());
-        dto.setCourseId(topic.getSection().getCourse().getId());
-        dto.setCourseTitle(topic.getSection().getCourse().getTitle());
-        dto.setSectionTitle(topic.getSection().getTitle());
-
-        // Set open/close dates based on topic type
-        String type = topic.getType().toLowerCase();
-
-        switch (type) {
-            case "quiz":
-                if (topic.getTopicQuiz() != null) {
-                    dto.setOpen(topic.getTopicQuiz().getOpen());
-                    dto.setClose(topic.getTopicQuiz().getClose());
-                }
-                break;
-            case "assignment":
-                if (topic.getTopicAssignment() != null) {
-                    dto.setOpen(topic.getTopicAssignment().getOpen());
-                    dto.setClose(topic.getTopicAssignment().getClose());
-                }
-                break;
-
-            case "meeting":
-                // Note: Topic entity doesn't have topicMeeting relationship in the provided
-                // code
-                // You may need to add this relationship or query separately
-                dto.setOpen(null);
-                dto.setClose(null);
-                break;
-
-            default:
-                dto.setOpen(null);
-                dto.setClose(null);
-        }
-
-        return dto;
-    }
-
     /**
      * Get user by ID
      */
@@ -382,88 +258,50 @@ public class UserService {
     }
 
     /**
-     * Get student performance report for a specific course
+     * Get student performance report for a specific course, over the quizzes and
+     * assignments open during the given window
      */
     @Transactional(readOnly = true)
     public StudentReportDto getStudentReport(String courseId, LocalDateTime start, LocalDateTime end) {
         User currentUser = getCurrentUser();
-        
-        Course course = courseRepo.findById(courseId)
-                .orElseThrow(() -> new CustomException("Course not found", HttpStatus.NOT_FOUND));
-        
-        // Get all topics for the course
-        List<Topic> allTopics = topicRepo.findBySectionCourseId(courseId);
-        
-        // Filter by date if provided
-        if (start != null) {
-            allTopics = allTopics.stream()
-                    .filter(t -> t.getCreatedAt() != null && t.getCreatedAt().isAfter(start))
-                    .collect(Collectors.toList());
-        }
-        if (end != null) {
-            allTopics = allTopics.stream()
-                    .filter(t -> t.getCreatedAt() != null && t.getCreatedAt().isBefore(end))
-                    .collect(Collectors.toList());
+        long contentVersion = courseVersionService.getVersion(courseId);
+
+        return studentReportCache.get(currentUser.getId(), courseId, contentVersion, start, end,
+                () -> buildStudentReport(courseId, currentUser.getId(), start, end));
+    }
+
+    private StudentReportDto buildStudentReport(String courseId, UUID studentId, LocalDateTime start,
+            LocalDateTime end) {
+        List<Object[]> rows = courseRepo.summarizeStudentWork(courseId, studentId,
+                start != null ? start : REPORT_MIN_TIME, end != null ? end : REPORT_MAX_TIME);
+        if (rows.isEmpty()) {
+            throw new CustomException("Course not found", HttpStatus.NOT_FOUND);
         }
-        
-        // Separate quizzes and assignments
-        List<Topic> quizTopics = allTopics.stream()
-                .filter(t -> "quiz".equalsIgnoreCase(t.getTopicType()))
-                .collect(Collectors.toList());
-                
-        List<Topic> assignmentTopics = allTopics.stream()
-                .filter(t -> "assignment".equalsIgnoreCase(t.getTopicType()))
-                .collect(Collectors.toList());
-        
-        // Get user's responses
-        List<QuizResponse> userQuizResponses = quizResponseRepo.findByStudentId(currentUser.getId());
-        List<AssignmentResponse> userAssignmentResponses = assignmentResponseRepo.findByStudentId(currentUser.getId());
-        
-        // Filter responses for this course's topics
-        Set<UUID> quizTopicIds = quizTopics.stream().map(Topic::getId).collect(Collectors.toSet());
-        Set<UUID> assignmentTopicIds = assignmentTopics.stream().map(Topic::getId).collect(Collectors.toSet());
-        
-        List<QuizResponse> courseQuizResponses = userQuizResponses.stream()
-                .filter(r -> quizTopicIds.contains(r.getTopic().getId()))
-                .collect(Collectors.toList());
-                
-        List<AssignmentResponse> courseAssignmentResponses = userAssignmentResponses.stream()
-                .filter(r -> assignmentTopicIds.contains(r.getTopic().getId()))
-                .collect(Collectors.toList());
-        
-        // Calculate statistics
-        double avgQuizScore = courseQuizResponses.stream()
-                .mapToDouble(QuizResponse::getTotalGrade)
-                .average()
-                .orElse(0.0);
-        
-        long lateSubmissions = courseAssignmentResponses.stream()
-                .filter(r -> {
-                    TopicAssignment assignment = topicAssignmentRepo.findByTopicId(r.getTopic().getId())
-                            .orElse(null);
-                    return assignment != null && 
-                           assignment.getDueDate() != null && 
-                           r.getUpdatedAt() != null &&
-                           r.getUpdatedAt().isAfter(assignment.getDueDate());
-                })
-                .count();
-        
-        int totalWork = quizTopics.size() + assignmentTopics.size();
-        int completedWork = courseQuizResponses.size() + courseAssignmentResponses.size();
+        Object[] row = rows.get(0);
+
+        long quizCount = ((Number) row[1]).longValue();
+        long completedQuizCount = ((Number) row[2]).longValue();
+        double averageQuizScore = row[3] != null ? ((Number) row[3]).doubleValue() : 0.0;
+        long assignmentCount = ((Number) row[4]).longValue();
+        long submittedAssignmentCount = ((Number) row[5]).longValue();
+        long lateSubmissions = ((Number) row[6]).longValue();
+
+        long totalWork = quizCount + assignmentCount;
+        long completedWork = completedQuizCount + submittedAssignmentCount;
         double completionRate = totalWork > 0 ? (double) completedWork / totalWork * 100 : 0.0;
-        
+
         StudentReportDto report = new StudentReportDto();
         report.setCourseId(courseId);
-        report.setCourseName(course.getTitle());
-        report.setTotalQuizCount(quizTopics.size());
-        report.setCompletedQuizCount(courseQuizResponses.size());
-        report.setAverageQuizScore(avgQuizScore);
-        report.setTotalAssignmentCount(assignmentTopics.size());
-        report.setSubmittedAssignmentCount(courseAssignmentResponses.size());
+        report.setCourseName((String) row[0]);
+        report.setTotalQuizCount(quizCount);
+        report.setCompletedQuizCount(completedQuizCount);
+        report.setAverageQuizScore(averageQuizScore);
+        report.setTotalAssignmentCount(assignmentCount);
+        report.setSubmittedAssignmentCount(submittedAssignmentCount);
         report.setLateSubmissions((int) lateSubmissions);
         report.setCompletionRate(completionRate);
         report.setReportGeneratedAt(LocalDateTime.now());
-        
+
         return report;
     }
 }
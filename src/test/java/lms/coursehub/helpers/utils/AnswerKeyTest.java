@@ -0,0 +1,169 @@
+package lms.coursehub.helpers.utils;
+
+import lms.coursehub.models.entities.Question;
+import lms.coursehub.models.entities.QuestionChoice;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnswerKeyTest {
+
+	@Test
+	void trueFalse() {
+		Question question = question("True/False", 2.0, false);
+		question.setCorrectAnswer(true);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(2.0, key, question, "true");
+		assertMark(2.0, key, question, " TRUE ");
+		assertMark(0.0, key, question, "false");
+		assertMark(0.0, key, question, "yes");
+	}
+
+	@Test
+	void singleChoiceUngraded() {
+		Question question = question("Choices Answer", 1.0, false);
+		QuestionChoice right = choice(question, "Paris", true, null);
+		QuestionChoice wrong = choice(question, "Lyon", false, null);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(1.0, key, question, right.getId().toString());
+		assertMark(1.0, key, question, "  paris ");
+		assertMark(0.0, key, question, wrong.getId().toString());
+		assertMark(0.0, key, question, "Marseille");
+	}
+
+	@Test
+	void singleChoiceWithSeveralCorrectChoicesGivesEachTheFullMark() {
+		Question question = question("Choices Answer", 1.0, false);
+		QuestionChoice first = choice(question, "4", true, null);
+		QuestionChoice second = choice(question, "four", true, null);
+		choice(question, "5", false, null);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(1.0, key, question, first.getId().toString());
+		assertMark(1.0, key, question, second.getId().toString());
+	}
+
+	@Test
+	void multipleChoiceGraded() {
+		Question question = question("Choices Answer", 10.0, true);
+		QuestionChoice a = choice(question, "A", true, 50.0);
+		QuestionChoice b = choice(question, "B", true, 50.0);
+		QuestionChoice c = choice(question, "C", false, -100.0);
+		choice(question, "D", false, null);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(5.0, key, question, ids(a));
+		assertMark(10.0, key, question, ids(a, b));
+		// A repeated selection counts once
+		assertMark(5.0, key, question, ids(a, a));
+		// Penalties never take a question below 0
+		assertMark(0.0, key, question, ids(a, c));
+		assertMark(10.0, key, question, "a, B, D");
+	}
+
+	@Test
+	void multipleChoiceGradedAsFractions() {
+		Question question = question("Choices Answer", 4.0, true);
+		QuestionChoice a = choice(question, "A", true, 0.5);
+		QuestionChoice b = choice(question, "B", true, 0.5);
+		QuestionChoice c = choice(question, "C", false, -0.5);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(4.0, key, question, ids(a, b));
+		assertMark(2.0, key, question, ids(a, b, c));
+	}
+
+	@Test
+	void multipleChoiceUngradedPenalizesWrongChoices() {
+		Question question = question("Choices Answer", 1.0, true);
+		QuestionChoice a = choice(question, "A", true, null);
+		QuestionChoice b = choice(question, "B", true, null);
+		QuestionChoice c = choice(question, "C", false, null);
+		QuestionChoice d = choice(question, "D", false, null);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(0.5, key, question, ids(a));
+		assertMark(1.0, key, question, ids(a, b));
+		assertMark(0.5, key, question, ids(a, b, c));
+		// Selecting every choice earns nothing
+		assertMark(0.0, key, question, ids(a, b, c, d));
+		assertMark(0.0, key, question, ids(c));
+	}
+
+	@Test
+	void shortAnswerUngradedAcceptsEveryAnswerInFull() {
+		Question question = question("Short Answer", 3.0, false);
+		choice(question, "New York", true, null);
+		choice(question, "NYC", true, null);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(3.0, key, question, "New York");
+		assertMark(3.0, key, question, "  new   YORK ");
+		assertMark(3.0, key, question, "nyc");
+		assertMark(0.0, key, question, "Boston");
+	}
+
+	@Test
+	void shortAnswerGradedKeepsBestGradeOfRepeatedTexts() {
+		Question question = question("Short Answer", 2.0, false);
+		choice(question, "colour", true, 100.0);
+		choice(question, "color", true, 50.0);
+		choice(question, "Colour ", true, 25.0);
+		AnswerKey key = AnswerKey.compile(List.of(question));
+
+		assertMark(2.0, key, question, "COLOUR");
+		assertMark(1.0, key, question, "color");
+	}
+
+	@Test
+	void unknownQuestionsAndTypesAreMarkedZero() {
+		Question essay = question("Essay", 5.0, false);
+		AnswerKey key = AnswerKey.compile(List.of(essay));
+
+		assertEquals(List.of(essay.getId().toString()), List.copyOf(key.getQuestionIds()));
+		assertMark(0.0, key, essay, "anything");
+		assertEquals(0, BigDecimal.ZERO.compareTo(key.grade(UUID.randomUUID().toString(), "true")));
+		assertEquals(0, BigDecimal.ZERO.compareTo(key.grade(null, "true")));
+	}
+
+	private static void assertMark(double expected, AnswerKey key, Question question, String answer) {
+		assertEquals(expected, key.grade(question.getId().toString(), answer).doubleValue(), 1e-9, answer);
+	}
+
+	private static String ids(QuestionChoice... choices) {
+		StringBuilder answer = new StringBuilder();
+		for (QuestionChoice choice : choices) {
+			if (!answer.isEmpty()) {
+				answer.append(",");
+			}
+			answer.append(choice.getId());
+		}
+		return answer.toString();
+	}
+
+	private static Question question(String type, double defaultMark, boolean multiple) {
+		Question question = new Question();
+		question.setId(UUID.randomUUID());
+		question.setType(type);
+		question.setDefaultMark(BigDecimal.valueOf(defaultMark));
+		question.setMultiple(multiple);
+		return question;
+	}
+
+	private static QuestionChoice choice(Question question, String text, boolean correct, Double grade) {
+		QuestionChoice choice = new QuestionChoice();
+		choice.setId(UUID.randomUUID());
+		choice.setText(text);
+		choice.setCorrect(correct);
+		choice.setGrade(grade != null ? BigDecimal.valueOf(grade) : null);
+		choice.setQuestion(question);
+		question.getQuestionChoices().add(choice);
+		return choice;
+	}
+}
@@ -0,0 +1,134 @@
+package lms.coursehub.helpers.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+	private static final double[] RANKS = { 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99 };
+
+	@Test
+	void emptySketchHasNoQuantiles() {
+		QuantileSketch sketch = new QuantileSketch();
+
+		assertEquals(0, sketch.getCount());
+		assertTrue(Double.isNaN(sketch.quantile(0.5)));
+	}
+
+	@Test
+	void exactUpToKValues() {
+		int k = 50;
+		QuantileSketch sketch = new QuantileSketch(k);
+		double[] values = shuffled(k, new Random(1));
+		for (double value : values) {
+			sketch.add(value);
+		}
+
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		for (double q : RANKS) {
+			assertEquals(nearestRank(sorted, q), sketch.quantile(q), "q=" + q);
+		}
+		assertEquals(sorted[0], sketch.quantile(0.0));
+		assertEquals(sorted[k - 1], sketch.quantile(1.0));
+	}
+
+	@Test
+	void quantilesWithinRankErrorOfSortedValues() {
+		int n = 100_000;
+		QuantileSketch sketch = new QuantileSketch();
+		double[] values = shuffled(n, new Random(2));
+		for (double value : values) {
+			sketch.add(value);
+		}
+
+		assertEquals(n, sketch.getCount());
+		assertRankError(sketch, values);
+	}
+
+	@Test
+	void mergedSketchMatchesAllValues() {
+		Random random = new Random(3);
+		double[] values = new double[60_000];
+		QuantileSketch merged = new QuantileSketch();
+		for (int part = 0; part < 6; part++) {
+			QuantileSketch sketch = new QuantileSketch();
+			for (int i = 0; i < 10_000; i++) {
+				// Parts cover different ranges, so the merge has to interleave them
+				double value = part * 5_000 + random.nextDouble() * 20_000;
+				values[part * 10_000 + i] = value;
+				sketch.add(value);
+			}
+			merged.merge(sketch);
+		}
+
+		assertEquals(values.length, merged.getCount());
+		assertRankError(merged, values);
+	}
+
+	@Test
+	void mergeOfSmallSketchesIsExact() {
+		QuantileSketch left = new QuantileSketch(100);
+		QuantileSketch right = new QuantileSketch(100);
+		double[] values = new double[100];
+		for (int i = 0; i < 100; i++) {
+			values[i] = i;
+			(i % 2 == 0 ? left : right).add(i);
+		}
+
+		QuantileSketch merged = new QuantileSketch(100).merge(left).merge(right);
+		for (double q : RANKS) {
+			assertEquals(nearestRank(values, q), merged.quantile(q), "q=" + q);
+		}
+	}
+
+	// Rank of the sketch's answer among the true values stays within 1% of the asked rank
+	private static void assertRankError(QuantileSketch sketch, double[] values) {
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		for (double q : RANKS) {
+			double estimate = sketch.quantile(q);
+			int below = lowerBound(sorted, estimate);
+			double rank = (double) below / sorted.length;
+			assertTrue(Math.abs(rank - q) <= 0.01, "q=" + q + " got rank " + rank);
+		}
+	}
+
+	private static double nearestRank(double[] sorted, double q) {
+		int rank = (int) Math.ceil(q * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	private static int lowerBound(double[] sorted, double value) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static double[] shuffled(int n, Random random) {
+		double[] values = new double[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			double swap = values[i];
+			values[i] = values[j];
+			values[j] = swap;
+		}
+		return values;
+	}
+}
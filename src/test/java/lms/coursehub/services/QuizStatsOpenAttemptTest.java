@@ -0,0 +1,200 @@
+package lms.coursehub.services;
+
+import jakarta.persistence.EntityManager;
+import lms.coursehub.models.dtos.quiz.CreateQuizResponseAnswerDto;
+import lms.coursehub.models.dtos.quiz.CreateQuizResponseRequest;
+import lms.coursehub.models.dtos.quiz.QuizResponseDto;
+import lms.coursehub.models.entities.Course;
+import lms.coursehub.models.entities.Question;
+import lms.coursehub.models.entities.QuestionChoice;
+import lms.coursehub.models.entities.QuizStat;
+import lms.coursehub.models.entities.QuizStudentStat;
+import lms.coursehub.models.entities.Section;
+import lms.coursehub.models.entities.Topic;
+import lms.coursehub.models.entities.TopicQuiz;
+import lms.coursehub.models.entities.User;
+import lms.coursehub.models.enums.UserRole;
+import lms.coursehub.repositories.QuizStatRepo;
+import lms.coursehub.repositories.QuizStudentStatRepo;
+import lms.coursehub.repositories.TopicQuizRepo;
+import lms.coursehub.repositories.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * An attempt that is started (and autosaved) but not submitted must not show
+ * up in the quiz stats, whether they are refreshed for the student or rebuilt.
+ *
+ * The stats are summarized by native PostgreSQL queries, so this needs a
+ * PostgreSQL database of its own (the schema is created by ddl-auto and the
+ * data is left in place) and only runs when one is given:
+ *
+ * mvn test -Dtest=QuizStatsOpenAttemptTest -Dcoursehub.test.jdbc-url=jdbc:postgresql://localhost:5432/coursehub_test
+ *     -Dcoursehub.test.user=... -Dcoursehub.test.password=...
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "coursehub.test.jdbc-url", matches = ".+")
+class QuizStatsOpenAttemptTest {
+
+	@Autowired
+	private QuizResponseService quizResponseService;
+
+	@Autowired
+	private QuizAttemptService quizAttemptService;
+
+	@Autowired
+	private QuizStatsService quizStatsService;
+
+	@Autowired
+	private QuizStatRepo quizStatRepo;
+
+	@Autowired
+	private QuizStudentStatRepo quizStudentStatRepo;
+
+	@Autowired
+	private TopicQuizRepo topicQuizRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getProperty("coursehub.test.jdbc-url"));
+		registry.add("spring.datasource.username", () -> System.getProperty("coursehub.test.user", "postgres"));
+		registry.add("spring.datasource.password", () -> System.getProperty("coursehub.test.password", ""));
+		// Tokens are never issued here; the key only has to be present
+		registry.add("jwt.secret", () -> Base64.getEncoder().encodeToString(new byte[32]));
+	}
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void openAttemptDoesNotChangeStats() {
+		String run = UUID.randomUUID().toString().substring(0, 8);
+		User teacher = userRepo.save(new User("teacher-" + run + "@test.local", "teacher-" + run, "-",
+				UserRole.TEACHER));
+		User student = userRepo.save(new User("student-" + run + "@test.local", "student-" + run, "-",
+				UserRole.STUDENT));
+		TopicQuiz quiz = createQuiz(run, teacher);
+		UUID quizId = quiz.getId();
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(student.getEmail(), null, List.of()));
+
+		// One submitted attempt with every answer right: 2 of 2
+		quizResponseService.createQuizResponse(quizId, request(quiz, 0));
+		assertStats(quizId, student.getId(), 1, 2.0);
+
+		// Then an attempt that is started and autosaved with every answer wrong, but not submitted
+		QuizResponseDto open = quizAttemptService.startAttempt(quizId);
+		quizAttemptService.saveAnswers(quizId, open.getId(), request(quiz, 1).getAnswers());
+		quizAttemptService.flushPending();
+
+		quizStatsService.refreshStudent(topicQuizRepo.findById(quizId).orElseThrow(), student.getId());
+		assertStats(quizId, student.getId(), 1, 2.0);
+
+		// Average Grade forces a rebuild from all of the quiz's responses
+		quizStatsService.rebuild(quizId, "Average Grade");
+		assertStats(quizId, student.getId(), 1, 2.0);
+	}
+
+	private void assertStats(UUID quizId, UUID studentId, long attempts, double mark) {
+		QuizStat stat = quizStatRepo.findById(quizId).orElseThrow();
+		assertEquals(attempts, stat.getAttemptCount());
+		assertEquals(1, stat.getStudentCount());
+
+		List<QuizStudentStat> studentStats = quizStudentStatRepo.findByTopicQuizId(quizId);
+		assertEquals(1, studentStats.size());
+		QuizStudentStat studentStat = studentStats.get(0);
+		assertEquals(studentId, studentStat.getStudentId());
+		assertEquals(attempts, studentStat.getAttemptCount());
+		assertEquals(mark, studentStat.getBestMark(), 1e-9);
+		assertEquals(mark, studentStat.getFirstMark(), 1e-9);
+		assertEquals(mark, studentStat.getLastMark(), 1e-9);
+		assertEquals(mark, studentStat.getAvgMark(), 1e-9);
+	}
+
+	// Choice 0 of every question is the right one
+	private static CreateQuizResponseRequest request(TopicQuiz quiz, int choice) {
+		List<CreateQuizResponseAnswerDto> answers = new ArrayList<>();
+		for (Question question : quiz.getQuestions()) {
+			CreateQuizResponseAnswerDto answer = new CreateQuizResponseAnswerDto();
+			answer.setQuestionId(question.getId().toString());
+			answer.setAnswerText(question.getQuestionChoices().get(choice).getId().toString());
+			answers.add(answer);
+		}
+		CreateQuizResponseRequest request = new CreateQuizResponseRequest();
+		request.setAnswers(answers);
+		return request;
+	}
+
+	private TopicQuiz createQuiz(String run, User teacher) {
+		Course course = new Course();
+		course.setId("test-" + run);
+		course.setTitle("Test " + run);
+		course.setCreator(teacher);
+
+		Section section = new Section();
+		section.setTitle("Section");
+		section.setCourse(course);
+		course.getSections().add(section);
+
+		Topic topic = new Topic();
+		topic.setTitle("Quiz");
+		topic.setType("quiz");
+		topic.setSection(section);
+		section.getTopics().add(topic);
+
+		TopicQuiz quiz = new TopicQuiz();
+		quiz.setTopic(topic);
+		quiz.setGradingMethod("Highest Grade");
+		quiz.setAttemptAllowed("Unlimited");
+		topic.setTopicQuiz(quiz);
+
+		for (int i = 0; i < 2; i++) {
+			Question question = new Question();
+			question.setQuestionName("Question " + i);
+			question.setQuestionText("Question " + i);
+			question.setType("Choices Answer");
+			question.setDefaultMark(BigDecimal.ONE);
+			question.setCreator(teacher);
+			for (int c = 0; c < 2; c++) {
+				QuestionChoice choice = new QuestionChoice();
+				choice.setText("Choice " + c);
+				choice.setCorrect(c == 0);
+				choice.setQuestion(question);
+				question.getQuestionChoices().add(choice);
+			}
+			quiz.getQuestions().add(question);
+		}
+
+		// Persisted (not merged) so the ids are set on this graph
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.persist(course));
+		return quiz;
+	}
+}